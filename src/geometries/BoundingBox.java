@@ -0,0 +1,173 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+
+/**
+ * this class represents an axis-aligned bounding box of an intersectable
+ *
+ * @author Elad and Amitay
+ */
+public class BoundingBox {
+    /**
+     * padding of the box in the slab test, so flat boxes (axis-aligned polygons) are not missed
+     */
+    static final double PADDING = 1e-6;
+
+    /**
+     * box of unbounded geometries (like planes and tubes) - every ray passes through it
+     */
+    public static final BoundingBox INFINITE = new BoundingBox(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    /**
+     * box of an empty list of geometries - no ray passes through it
+     */
+    public static final BoundingBox EMPTY = new BoundingBox(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+    /**
+     * the minimal coordinates of the box
+     */
+    public final double minX, minY, minZ;
+    /**
+     * the maximal coordinates of the box
+     */
+    public final double maxX, maxY, maxZ;
+
+    /**
+     * constructor that gets the minimal and maximal coordinates of the box
+     *
+     * @param minX,minY,minZ the minimal coordinates
+     * @param maxX,maxY,maxZ the maximal coordinates
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * creates the smallest box containing all the given points
+     *
+     * @param points the points
+     * @return the bounding box of the points
+     */
+    public static BoundingBox of(Point... points) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point point : points) {
+            minX = Math.min(minX, point.getX());
+            minY = Math.min(minY, point.getY());
+            minZ = Math.min(minZ, point.getZ());
+            maxX = Math.max(maxX, point.getX());
+            maxY = Math.max(maxY, point.getY());
+            maxZ = Math.max(maxZ, point.getZ());
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * returns the smallest box containing both this box and another box
+     *
+     * @param other the other box
+     * @return the union of the boxes
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * checks whether the box is unbounded on any axis
+     *
+     * @return true if the box is infinite, false otherwise
+     */
+    public boolean isInfinite() {
+        return maxX - minX == Double.POSITIVE_INFINITY || maxY - minY == Double.POSITIVE_INFINITY
+                || maxZ - minZ == Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * returns the surface area of the box (used by the surface area heuristic)
+     *
+     * @return the surface area
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * returns the coordinate of the center of the box on an axis
+     *
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the coordinate of the center
+     */
+    public double getCenter(int axis) {
+        return switch (axis) {
+            case 0 -> (minX + maxX) / 2;
+            case 1 -> (minY + maxY) / 2;
+            default -> (minZ + maxZ) / 2;
+        };
+    }
+
+    /**
+     * checks whether a ray passes through the box up to a maximum distance using the slab method
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance
+     * @return true if the ray might hit something inside the box, false otherwise
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        if (this == INFINITE)
+            return true;
+        if (this == EMPTY)
+            return false;
+        Point head = ray.getHead();
+        Point direction = ray.getDirection();
+        double tMin = 0, tMax = maxDistance + PADDING;
+        //x slab
+        double inverse = 1 / direction.getX();
+        double t1 = (minX - PADDING - head.getX()) * inverse, t2 = (maxX + PADDING - head.getX()) * inverse;
+        if (direction.getX() == 0) {//ray is parallel to the slab
+            if (head.getX() < minX - PADDING || head.getX() > maxX + PADDING) return false;
+        } else {
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+            if (tMin > tMax) return false;
+        }
+        //y slab
+        inverse = 1 / direction.getY();
+        t1 = (minY - PADDING - head.getY()) * inverse;
+        t2 = (maxY + PADDING - head.getY()) * inverse;
+        if (direction.getY() == 0) {
+            if (head.getY() < minY - PADDING || head.getY() > maxY + PADDING) return false;
+        } else {
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+            if (tMin > tMax) return false;
+        }
+        //z slab
+        inverse = 1 / direction.getZ();
+        t1 = (minZ - PADDING - head.getZ()) * inverse;
+        t2 = (maxZ + PADDING - head.getZ()) * inverse;
+        if (direction.getZ() == 0) {
+            return head.getZ() >= minZ - PADDING && head.getZ() <= maxZ + PADDING;
+        }
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+        return tMin <= tMax;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=(" + minX + "," + minY + "," + minZ + ")" +
+                ", max=(" + maxX + "," + maxY + "," + maxZ + ")" +
+                '}';
+    }
+}
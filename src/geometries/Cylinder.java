@@ -40,6 +40,13 @@ public class Cylinder extends Tube {
         return super.getNormal(point);
     }
 
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox bases = BoundingBox.of(axis.getHead(), axis.getPoint(height));
+        return new BoundingBox(bases.minX - radius, bases.minY - radius, bases.minZ - radius,
+                bases.maxX + radius, bases.maxY + radius, bases.maxZ + radius);
+    }
+
     @Override
     public List<Point> findIntersections(Ray ray) {
         return null;
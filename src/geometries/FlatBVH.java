@@ -0,0 +1,162 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * this class represents a bounding volume hierarchy compiled into flat primitive arrays.
+ * the nodes are ordered depth-first (the left child of a node is the node right after it),
+ * and they are traversed with a fixed-size stack of node indexes instead of recursive calls
+ * (see {@link FlatTree})
+ *
+ * @author Elad and Amitay
+ */
+public class FlatBVH extends Intersectable {
+    /**
+     * the hierarchy over the bounding boxes of the geometries
+     */
+    private final FlatTree tree;
+    /**
+     * the geometries with a bounding box, ordered so the primitives of every leaf are adjacent
+     */
+    private final Intersectable[] primitives;
+    /**
+     * the geometries without a bounding box (like planes), tested for every ray
+     */
+    private final Intersectable[] unbounded;
+    /**
+     * time the build of the hierarchy took in milliseconds
+     */
+    private final long buildTime;
+
+    /**
+     * constructor that gets geometries and compiles them into a hierarchy using the surface area heuristic
+     *
+     * @param geometries the geometries (nested lists are flattened)
+     */
+    public FlatBVH(Geometries geometries) {
+        this(geometries, 0);
+    }
+
+    /**
+     * constructor that gets geometries and compiles them into a hierarchy
+     *
+     * @param geometries the geometries (nested lists are flattened)
+     * @param mortonBits amount of bits of each axis in the morton codes of the parallel linear build,
+     *                   0 for the surface area heuristic
+     */
+    private FlatBVH(Geometries geometries, int mortonBits) {
+        long start = System.nanoTime();
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> unboundedList = new ArrayList<>();
+        geometries.flatten(bounded, unboundedList);
+        unbounded = unboundedList.toArray(new Intersectable[0]);
+
+        int count = bounded.size();
+        BoundingBox[] boxes = new BoundingBox[count];
+        IntStream.range(0, count).parallel().forEach(i -> boxes[i] = bounded.get(i).getBoundingBox());
+        tree = new FlatTree(boxes, mortonBits);
+
+        primitives = new Intersectable[count];
+        for (int i = 0; i < count; i++)
+            primitives[i] = bounded.get(tree.getItem(i));
+        buildTime = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * compiles geometries into a hierarchy using the linear build with 30 bits morton codes
+     * (see {@link #linear(Geometries, boolean)})
+     *
+     * @param geometries the geometries (nested lists are flattened)
+     * @return the hierarchy
+     */
+    public static FlatBVH linear(Geometries geometries) {
+        return linear(geometries, false);
+    }
+
+    /**
+     * compiles geometries into a hierarchy using the linear build: the primitives are sorted by the morton codes
+     * of their centroids, and the hierarchy is emitted in parallel by splitting the sorted codes on their
+     * highest different bit. much faster to build than the surface area heuristic, for huge generated scenes.
+     * the splits follow the grid of the codes and not the cost of the rays, so the hierarchy is slower to
+     * traverse than the one of the surface area heuristic. the 30 bits codes put the centroids on a grid of
+     * 1024 cells on each axis, so huge scenes get many equal codes that are split in the middle -
+     * the 63 bits codes (2^21 cells on each axis) keep them apart, for a slower sort
+     *
+     * @param geometries the geometries (nested lists are flattened)
+     * @param longCodes  true for 63 bits morton codes, false for 30 bits
+     * @return the hierarchy
+     */
+    public static FlatBVH linear(Geometries geometries, boolean longCodes) {
+        return new FlatBVH(geometries, longCodes ? FlatTree.LONG_MORTON_BITS : FlatTree.SHORT_MORTON_BITS);
+    }
+
+    /**
+     * returns the time the build of the hierarchy took
+     *
+     * @return the build time in milliseconds
+     */
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    /**
+     * returns the amount of nodes in the hierarchy
+     *
+     * @return the amount of nodes
+     */
+    public int getNodeCount() {
+        return tree.getNodeCount();
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        if (unbounded.length > 0)
+            return BoundingBox.INFINITE;
+        return tree.getBoundingBox();
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = null;
+        for (Intersectable intersectable : unbounded)
+            intersections = addAll(intersections, intersectable.findGeoIntersections(ray, maxDistance));
+        FlatTree.Cursor cursor = tree.cursor(ray);
+        for (int i = cursor.next(maxDistance); i >= 0; i = cursor.next(maxDistance))
+            intersections = addAll(intersections, primitives[i].findGeoIntersections(ray, maxDistance));
+        return intersections;
+    }
+
+    @Override
+    protected boolean intersectHelper(Ray ray, Hit hit) {
+        boolean found = false;
+        for (Intersectable intersectable : unbounded)
+            found |= intersectable.intersect(ray, hit);
+        //the cursor skips the nodes behind the closest intersection found so far
+        FlatTree.Cursor cursor = tree.cursor(ray);
+        for (int i = cursor.next(hit.t); i >= 0; i = cursor.next(hit.t))
+            found |= primitives[i].intersect(ray, hit);
+        return found;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        Double3 ktr = Double3.ONE;
+        for (Intersectable intersectable : unbounded) {
+            ktr = attenuate(ktr, intersectable.findTransparency(ray, maxDistance));
+            if (ktr == Double3.ZERO)
+                return Double3.ZERO;
+        }
+        FlatTree.Cursor cursor = tree.cursor(ray);
+        for (int i = cursor.next(maxDistance); i >= 0; i = cursor.next(maxDistance)) {
+            ktr = attenuate(ktr, primitives[i].findTransparency(ray, maxDistance));
+            if (ktr == Double3.ZERO)//opaque primitive - the rest of the hierarchy does not matter
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+}
@@ -0,0 +1,477 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * a bounding volume hierarchy over the bounding boxes of items, compiled into flat arrays.
+ * the nodes are ordered depth-first (the left child of a node is the node right after it), and the items
+ * of every leaf are adjacent in the order of the leaves. the hierarchy does not know what the items are -
+ * {@link FlatBVH} keeps geometries in the order of the leaves and {@link TriangleMesh} keeps faces, and both
+ * walk the hierarchy with a {@link Cursor} that hands out the items a ray reaches
+ *
+ * @author Elad and Amitay
+ */
+final class FlatTree {
+    /**
+     * maximal depth of the surface area heuristic, deeper ranges are split in the middle
+     */
+    private static final int MAX_DEPTH = 64;
+    /**
+     * size of the traversal stack - enough for the maximal depth and the middle splits below it
+     */
+    private static final int STACK_SIZE = 2 * MAX_DEPTH;
+    /**
+     * amount of bits of each axis in the short (30 bits) morton codes of the linear build
+     */
+    static final int SHORT_MORTON_BITS = 10;
+    /**
+     * amount of bits of each axis in the long (63 bits) morton codes of the linear build
+     */
+    static final int LONG_MORTON_BITS = 21;
+    /**
+     * minimal amount of items in a range for building its subtree in a separate task
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * bounds of the nodes - six numbers for each node: minX, minY, minZ, maxX, maxY, maxZ
+     */
+    private final double[] bounds;
+    /**
+     * data of the nodes - two numbers for each node:
+     * for a leaf - index of its first item and amount of items,
+     * for an inner node - index of its right child and zero
+     */
+    private final int[] nodes;
+    /**
+     * amount of nodes in the hierarchy
+     */
+    private int nodeCount = 0;
+    /**
+     * the indexes of the items in the order of the leaves
+     */
+    private final int[] order;
+    /**
+     * the cursor of each thread
+     */
+    private final ThreadLocal<Cursor> cursors = ThreadLocal.withInitial(Cursor::new);
+
+    /**
+     * constructor that builds a hierarchy over the bounding boxes of items
+     *
+     * @param boxes      the bounding boxes of the items (reordered by the constructor)
+     * @param mortonBits amount of bits of each axis in the morton codes of the parallel linear build,
+     *                   0 for the surface area heuristic
+     */
+    FlatTree(BoundingBox[] boxes, int mortonBits) {
+        int count = boxes.length;
+        order = new int[count];
+        for (int i = 0; i < count; i++)
+            order[i] = i;
+        int maxNodes = Math.max(1, 2 * count - 1);
+        bounds = new double[6 * maxNodes];
+        nodes = new int[2 * maxNodes];
+        if (count > 0)
+            if (mortonBits > 0)
+                buildLinear(boxes, order, mortonBits);
+            else
+                build(boxes, order, 0, count, 0);
+    }
+
+    /**
+     * returns the index of an item by its place in the order of the leaves
+     *
+     * @param place the place of the item in the order of the leaves
+     * @return the index of the item in the boxes the hierarchy was built from
+     */
+    int getItem(int place) {
+        return order[place];
+    }
+
+    /**
+     * returns the amount of nodes in the hierarchy
+     *
+     * @return the amount of nodes
+     */
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * returns the (padded) bounding box of the root
+     *
+     * @return the bounding box ; {@link BoundingBox#EMPTY} if there are no items
+     */
+    BoundingBox getBoundingBox() {
+        if (nodeCount == 0)
+            return BoundingBox.EMPTY;
+        return new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    /**
+     * starts a walk of a ray through the hierarchy, with the cursor of the current thread
+     *
+     * @param ray the ray
+     * @return the cursor
+     */
+    Cursor cursor(Ray ray) {
+        return cursors.get().start(ray);
+    }
+
+    /**
+     * a walk of a ray through the hierarchy, that hands out the items of the leaves the ray reaches one after the
+     * other. the nearer child of every node is visited first, and the maximum distance is given again for every
+     * item, so a query that finds closer intersections on the way skips the farther nodes.
+     * every thread reuses its own cursor, so a walk allocates nothing
+     */
+    final class Cursor {
+        /**
+         * the nodes waiting to be visited, with the distances in which the ray enters them
+         */
+        private final int[] stack = new int[STACK_SIZE];
+        private final double[] entries = new double[STACK_SIZE];
+        /**
+         * amount of nodes waiting to be visited
+         */
+        private int top;
+        /**
+         * the range of the places of the items of the current leaf that were not handed out yet
+         */
+        private int next, end;
+        /**
+         * the head of the ray and the inverse of its direction
+         */
+        private double ox, oy, oz, ix, iy, iz;
+
+        /**
+         * starts a walk from the root
+         *
+         * @param ray the ray
+         * @return the cursor itself
+         */
+        private Cursor start(Ray ray) {
+            Point head = ray.getHead();
+            Point direction = ray.getDirection();
+            ox = head.getX();
+            oy = head.getY();
+            oz = head.getZ();
+            ix = inverse(direction.getX());
+            iy = inverse(direction.getY());
+            iz = inverse(direction.getZ());
+            next = end = top = 0;
+            if (nodeCount > 0) {
+                stack[0] = 0;
+                entries[0] = enter(bounds, 0, ox, oy, oz, ix, iy, iz, Double.POSITIVE_INFINITY);
+                top = 1;
+            }
+            return this;
+        }
+
+        /**
+         * hands out the next item the ray reaches
+         *
+         * @param maxDistance the maximum distance - nodes the ray enters farther away are skipped
+         * @return the place of the item in the order of the leaves ; -1 if the walk is over
+         */
+        int next(double maxDistance) {
+            while (next == end)
+                if (!nextLeaf(maxDistance))
+                    return -1;
+            return next++;
+        }
+
+        /**
+         * walks to the next leaf the ray reaches in the distance
+         *
+         * @param maxDistance the maximum distance
+         * @return false if there are no more leaves, true otherwise
+         */
+        private boolean nextLeaf(double maxDistance) {
+            while (top > 0) {
+                int node = stack[--top];
+                if (entries[top] > maxDistance + BoundingBox.PADDING)//a closer intersection was found on the way
+                    continue;
+                while (true) {
+                    int count = nodes[2 * node + 1];
+                    if (count > 0) {
+                        next = nodes[2 * node];
+                        end = next + count;
+                        return true;
+                    }
+                    //inner node - visit the nearer child first and keep the farther one for later
+                    int left = node + 1, right = nodes[2 * node];
+                    double tLeft = enter(bounds, left, ox, oy, oz, ix, iy, iz, maxDistance);
+                    double tRight = enter(bounds, right, ox, oy, oz, ix, iy, iz, maxDistance);
+                    if (tLeft == Double.POSITIVE_INFINITY && tRight == Double.POSITIVE_INFINITY)
+                        break;
+                    if (tLeft != Double.POSITIVE_INFINITY && tRight != Double.POSITIVE_INFINITY) {
+                        stack[top] = tLeft <= tRight ? right : left;
+                        entries[top++] = Math.max(tLeft, tRight);
+                    }
+                    node = tLeft <= tRight ? left : right;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * builds the whole hierarchy in the arrays using the linear build
+     *
+     * @param boxes the bounding boxes of the items
+     * @param order the indexes of the items (sorted by the function by their morton codes)
+     * @param bits  amount of bits of each axis in the morton codes
+     */
+    private void buildLinear(BoundingBox[] boxes, int[] order, int bits) {
+        int count = boxes.length;
+        double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (BoundingBox box : boxes)
+            for (int axis = 0; axis < 3; axis++) {
+                min[axis] = Math.min(min[axis], box.getCenter(axis));
+                max[axis] = Math.max(max[axis], box.getCenter(axis));
+            }
+
+        long[] codes = new long[count];
+        IntStream.range(0, count).parallel().forEach(i ->
+                codes[i] = spreadBits(quantize(boxes[i].getCenter(0), min[0], max[0], bits)) << 2
+                        | spreadBits(quantize(boxes[i].getCenter(1), min[1], max[1], bits)) << 1
+                        | spreadBits(quantize(boxes[i].getCenter(2), min[2], max[2], bits)));
+        sortByCodes(codes, order, bits);
+        long[] sorted = new long[count];
+        IntStream.range(0, count).parallel().forEach(i -> sorted[i] = codes[order[i]]);
+
+        //every leaf holds one item, so a range of n items takes exactly 2n-1 nodes
+        nodeCount = 2 * count - 1;
+        ForkJoinPool.commonPool().invoke(new LinearNode(boxes, order, sorted, 0, count, 0));
+    }
+
+    /**
+     * sorts the indexes of the items by their morton codes. a code is sorted with its index in one long -
+     * the code in the high half and the index in the low half. longer codes are sorted by their high half first,
+     * and every run of the same high half is sorted again by the low half
+     *
+     * @param codes the morton codes of the items
+     * @param order the indexes of the items, filled by the function in the order of their codes
+     * @param bits  amount of bits of each axis in the morton codes
+     */
+    private static void sortByCodes(long[] codes, int[] order, int bits) {
+        int count = codes.length;
+        long[] keys = new long[count];
+        boolean shortCodes = 3 * bits < 32;
+        IntStream.range(0, count).parallel().forEach(i ->
+                keys[i] = (shortCodes ? codes[i] : codes[i] >>> 32) << 32 | i);
+        Arrays.parallelSort(keys);
+        if (!shortCodes)
+            for (int from = 0, to; from < count; from = to) {
+                long high = keys[from] >>> 32;
+                for (to = from + 1; to < count && keys[to] >>> 32 == high; )
+                    to++;
+                if (to - from == 1)
+                    continue;
+                //flipping the sign bit sorts the low halves, which may use all 32 bits, as unsigned numbers
+                for (int i = from; i < to; i++) {
+                    int index = (int) keys[i];
+                    keys[i] = (codes[index] << 32 | index) ^ Long.MIN_VALUE;
+                }
+                Arrays.sort(keys, from, to);
+            }
+        for (int i = 0; i < count; i++)
+            order[i] = (int) keys[i];
+    }
+
+    /**
+     * returns the place of a coordinate in the grid of the morton codes
+     *
+     * @param coordinate the coordinate
+     * @param min,max    the range of the coordinates
+     * @param bits       amount of bits of the place
+     * @return the place in the grid
+     */
+    private static long quantize(double coordinate, double min, double max, int bits) {
+        if (max <= min)
+            return 0;
+        long cells = 1L << bits;
+        return Math.min(cells - 1, (long) ((coordinate - min) / (max - min) * cells));
+    }
+
+    /**
+     * spreads the bits of a number so there are two zero bits between every two bits
+     *
+     * @param x the number (up to 21 bits)
+     * @return the spread number (up to 63 bits)
+     */
+    private static long spreadBits(long x) {
+        x = (x | x << 32) & 0x1F00000000FFFFL;
+        x = (x | x << 16) & 0x1F0000FF0000FFL;
+        x = (x | x << 8) & 0x100F00F00F00F00FL;
+        x = (x | x << 4) & 0x10C30C30C30C30C3L;
+        x = (x | x << 2) & 0x1249249249249249L;
+        return x;
+    }
+
+    /**
+     * task that builds a node (and its subtree) of the linear build.
+     * the tasks are never serialized, they only run on the fork-join pool
+     */
+    @SuppressWarnings("serial")
+    private class LinearNode extends RecursiveAction {
+        private final BoundingBox[] boxes;
+        private final int[] order;
+        private final long[] codes;
+        private final int from, to, node;
+
+        /**
+         * simple constructor
+         *
+         * @param boxes   the bounding boxes of the items
+         * @param order   the indexes of the items sorted by their morton codes
+         * @param codes   the sorted morton codes
+         * @param from,to the range of the items in the node
+         * @param node    the index of the node
+         */
+        LinearNode(BoundingBox[] boxes, int[] order, long[] codes, int from, int to, int node) {
+            this.boxes = boxes;
+            this.order = order;
+            this.codes = codes;
+            this.from = from;
+            this.to = to;
+            this.node = node;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {//leaf
+                setBounds(bounds, node, boxes[order[from]]);
+                nodes[2 * node] = from;
+                nodes[2 * node + 1] = 1;
+                return;
+            }
+            int middle = split();
+            int right = node + 2 * (middle - from);
+            LinearNode leftTask = new LinearNode(boxes, order, codes, from, middle, node + 1);
+            LinearNode rightTask = new LinearNode(boxes, order, codes, middle, to, right);
+            if (to - from >= PARALLEL_THRESHOLD)
+                invokeAll(leftTask, rightTask);
+            else {
+                leftTask.compute();
+                rightTask.compute();
+            }
+            nodes[2 * node] = right;
+            nodes[2 * node + 1] = 0;
+            for (int i = 0; i < 3; i++) {
+                bounds[6 * node + i] = Math.min(bounds[6 * (node + 1) + i], bounds[6 * right + i]);
+                bounds[6 * node + i + 3] = Math.max(bounds[6 * (node + 1) + i + 3], bounds[6 * right + i + 3]);
+            }
+        }
+
+        /**
+         * finds the first item in the range whose code has the highest bit that differs in the range
+         *
+         * @return the index where the second part of the range starts
+         */
+        private int split() {
+            long first = codes[from], last = codes[to - 1];
+            if (first == last)//all the codes are the same - split in the middle
+                return from + (to - from) / 2;
+            int bit = 63 - Long.numberOfLeadingZeros(first ^ last);
+            int low = from, high = to - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if ((codes[middle] >>> bit & 1) == 1)
+                    high = middle;
+                else
+                    low = middle + 1;
+            }
+            return low;
+        }
+    }
+
+    /**
+     * builds a node (and its subtree) in the arrays
+     *
+     * @param boxes   the bounding boxes of the items (reordered by the function)
+     * @param order   the indexes of the items (reordered with the boxes)
+     * @param from,to the range of the items in the node
+     * @param depth   the depth of the node
+     * @return the index of the node
+     */
+    private int build(BoundingBox[] boxes, int[] order, int from, int to, int depth) {
+        int node = nodeCount++;
+        BoundingBox box = boxes[from];
+        for (int i = from + 1; i < to; i++)
+            box = box.union(boxes[i]);
+        setBounds(bounds, node, box);
+
+        int middle = to - from == 1 ? -1
+                : depth < MAX_DEPTH ? Geometries.split(boxes, order, from, to)
+                : from + (to - from) / 2;
+        if (middle < 0) {//leaf
+            nodes[2 * node] = from;
+            nodes[2 * node + 1] = to - from;
+        } else {//the left child is built right after the node
+            build(boxes, order, from, middle, depth + 1);
+            nodes[2 * node] = build(boxes, order, middle, to, depth + 1);
+            nodes[2 * node + 1] = 0;
+        }
+        return node;
+    }
+
+    /**
+     * stores the (padded) bounds of a node
+     *
+     * @param bounds the bounds of the nodes (six numbers for each node)
+     * @param node   the index of the node
+     * @param box    the bounding box of the node
+     */
+    private static void setBounds(double[] bounds, int node, BoundingBox box) {
+        int i = 6 * node;
+        bounds[i] = box.minX - BoundingBox.PADDING;
+        bounds[i + 1] = box.minY - BoundingBox.PADDING;
+        bounds[i + 2] = box.minZ - BoundingBox.PADDING;
+        bounds[i + 3] = box.maxX + BoundingBox.PADDING;
+        bounds[i + 4] = box.maxY + BoundingBox.PADDING;
+        bounds[i + 5] = box.maxZ + BoundingBox.PADDING;
+    }
+
+    /**
+     * returns the inverse of a coordinate of a direction, avoiding infinity for zero coordinates
+     *
+     * @param coordinate the coordinate
+     * @return the inverse
+     */
+    private static double inverse(double coordinate) {
+        return 1 / (coordinate == 0 ? Double.MIN_NORMAL : coordinate);
+    }
+
+    /**
+     * returns the distance in which a ray enters the box of a node
+     *
+     * @param bounds      the bounds of the nodes (six numbers for each node)
+     * @param node        the index of the node
+     * @param ox,oy,oz    the head of the ray
+     * @param ix,iy,iz    the inverse of the direction of the ray
+     * @param maxDistance the maximum distance
+     * @return the entering distance ; infinity if the ray misses the box in the distance
+     */
+    private static double enter(double[] bounds, int node, double ox, double oy, double oz, double ix, double iy, double iz, double maxDistance) {
+        int i = 6 * node;
+        double t1 = (bounds[i] - ox) * ix, t2 = (bounds[i + 3] - ox) * ix;
+        double tMin = Math.min(t1, t2), tMax = Math.max(t1, t2);
+        t1 = (bounds[i + 1] - oy) * iy;
+        t2 = (bounds[i + 4] - oy) * iy;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+        t1 = (bounds[i + 2] - oz) * iz;
+        t2 = (bounds[i + 5] - oz) * iz;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+        return tMin <= tMax && tMax >= 0 && tMin <= maxDistance + BoundingBox.PADDING ? tMin : Double.POSITIVE_INFINITY;
+    }
+}
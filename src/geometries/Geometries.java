@@ -1,9 +1,9 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Ray;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -12,6 +12,19 @@ import java.util.List;
  * @author Elad and Amitay
  */
 public class Geometries extends Intersectable {
+    /**
+     * maximal amount of geometries in a leaf of the bounding volume hierarchy
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+    /**
+     * amount of buckets used for estimating the surface area heuristic
+     */
+    private static final int SAH_BUCKETS = 12;
+    /**
+     * cost of visiting a node of the hierarchy relative to the cost of intersecting a geometry
+     */
+    private static final double TRAVERSAL_COST = 0.125;
+
     //the list itself
     private final List<Intersectable> geometries = new ArrayList<>();
 
@@ -37,6 +50,232 @@ public class Geometries extends Intersectable {
      */
     public void add(Intersectable... geometries) {
         this.geometries.addAll(List.of(geometries));
+        resetBoundingBox();
+    }
+
+    /**
+     * builds a bounding volume hierarchy (using the surface area heuristic) from the geometries of the list,
+     * so every ray is tested only against the geometries whose bounding boxes it passes through.
+     * every node is culled by its bounding box in {@link #findGeoIntersections(Ray, double)}.
+     * nested lists are flattened and unbounded geometries (like planes) are kept at the top of the hierarchy.
+     * should be called once after the scene is set and before rendering
+     *
+     * @return the geometries themselves
+     */
+    public Geometries buildBVH() {
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> unbounded = new ArrayList<>();
+        flatten(bounded, unbounded);
+        geometries.clear();
+        geometries.addAll(unbounded);
+        resetBoundingBox();
+        if (!bounded.isEmpty()) {
+            Intersectable[] items = bounded.toArray(new Intersectable[0]);
+            BoundingBox[] boxes = new BoundingBox[items.length];
+            int[] order = new int[items.length];
+            for (int i = 0; i < items.length; i++) {
+                boxes[i] = items[i].getBoundingBox();
+                order[i] = i;
+            }
+            geometries.add(buildNode(items, boxes, order, 0, items.length));
+        }
+        return this;
+    }
+
+    /**
+     * compiles the geometries into a {@link FlatBVH} that replaces the content of the list,
+     * so the list can stay the geometries of the scene.
+     * should be called once after the scene is set and before rendering
+     *
+     * @return the geometries themselves
+     */
+    public Geometries buildFlatBVH() {
+        FlatBVH hierarchy = new FlatBVH(this);
+        geometries.clear();
+        geometries.add(hierarchy);
+        resetBoundingBox();
+        return this;
+    }
+
+    /**
+     * compiles the geometries into a {@link FlatBVH} using the parallel linear build (see {@link FlatBVH#linear}),
+     * that replaces the content of the list. faster to build but slower to traverse than {@link #buildFlatBVH()}
+     *
+     * @return the compiled hierarchy, for its build time
+     */
+    public FlatBVH buildLinearBVH() {
+        FlatBVH hierarchy = FlatBVH.linear(this);
+        geometries.clear();
+        geometries.add(hierarchy);
+        resetBoundingBox();
+        return hierarchy;
+    }
+
+    /**
+     * compiles the geometries into a {@link UniformGrid}, that replaces the content of the list.
+     * suits dense scenes of evenly spread geometries
+     *
+     * @return the compiled grid
+     */
+    public UniformGrid buildGrid() {
+        UniformGrid grid = new UniformGrid(this);
+        geometries.clear();
+        geometries.add(grid);
+        resetBoundingBox();
+        return grid;
+    }
+
+    /**
+     * collects all the geometries in the list and in its nested lists
+     *
+     * @param bounded   the list to collect geometries with a bounding box into
+     * @param unbounded the list to collect geometries without a bounding box into
+     */
+    void flatten(List<Intersectable> bounded, List<Intersectable> unbounded) {
+        for (Intersectable intersectable : geometries)
+            if (intersectable instanceof Geometries inner)
+                inner.flatten(bounded, unbounded);
+            else if (intersectable.getBoundingBox().isInfinite())
+                unbounded.add(intersectable);
+            else
+                bounded.add(intersectable);
+    }
+
+    /**
+     * builds a node of the bounding volume hierarchy from a range of geometries
+     *
+     * @param items   the geometries
+     * @param boxes   the bounding boxes of the geometries (reordered by the function)
+     * @param order   the indexes of the geometries (reordered with the boxes)
+     * @param from,to the range of the geometries in the node
+     * @return the node
+     */
+    private static Intersectable buildNode(Intersectable[] items, BoundingBox[] boxes, int[] order, int from, int to) {
+        if (to - from == 1)
+            return items[order[from]];
+        int middle = split(boxes, order, from, to);
+        if (middle < 0) {//leaf
+            Intersectable[] leaf = new Intersectable[to - from];
+            for (int i = from; i < to; i++)
+                leaf[i - from] = items[order[i]];
+            return new Geometries(leaf);
+        }
+        return new Geometries(buildNode(items, boxes, order, from, middle), buildNode(items, boxes, order, middle, to));
+    }
+
+    /**
+     * splits a range of geometries into two by the surface area heuristic
+     *
+     * @param boxes   the bounding boxes of the geometries (reordered by the function)
+     * @param order   the indexes of the geometries (reordered with the boxes)
+     * @param from,to the range of the geometries
+     * @return the index where the second part of the range starts ; -1 if the range should not be split
+     */
+    static int split(BoundingBox[] boxes, int[] order, int from, int to) {
+        int count = to - from;
+        BoundingBox bounds = boxes[from];
+        double[] centroidMin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] centroidMax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = from; i < to; i++) {
+            bounds = bounds.union(boxes[i]);
+            for (int axis = 0; axis < 3; axis++) {
+                centroidMin[axis] = Math.min(centroidMin[axis], boxes[i].getCenter(axis));
+                centroidMax[axis] = Math.max(centroidMax[axis], boxes[i].getCenter(axis));
+            }
+        }
+
+        //find the split with the lowest estimated cost
+        double area = bounds.surfaceArea();
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestBucket = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            double extent = centroidMax[axis] - centroidMin[axis];
+            if (extent <= 0)//all the centroids are on the same place on this axis
+                continue;
+            int[] counts = new int[SAH_BUCKETS];
+            BoundingBox[] bucketBoxes = new BoundingBox[SAH_BUCKETS];
+            for (int i = from; i < to; i++) {
+                int bucket = bucket(boxes[i].getCenter(axis), centroidMin[axis], extent);
+                counts[bucket]++;
+                bucketBoxes[bucket] = bucketBoxes[bucket] == null ? boxes[i] : bucketBoxes[bucket].union(boxes[i]);
+            }
+            for (int split = 1; split < SAH_BUCKETS; split++) {
+                double cost = TRAVERSAL_COST + (sideCost(counts, bucketBoxes, 0, split)
+                        + sideCost(counts, bucketBoxes, split, SAH_BUCKETS)) / area;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBucket = split;
+                }
+            }
+        }
+
+        if (count <= MAX_LEAF_SIZE && (bestAxis == -1 || bestCost >= count))//a leaf is cheaper than any split
+            return -1;
+        if (bestAxis == -1)//all the centroids coincide - no split is better than another
+            return from + count / 2;
+        //partition the geometries by the bucket of their centroid
+        double extent = centroidMax[bestAxis] - centroidMin[bestAxis];
+        int middle = from;
+        for (int i = from; i < to; i++)
+            if (bucket(boxes[i].getCenter(bestAxis), centroidMin[bestAxis], extent) < bestBucket) {
+                BoundingBox box = boxes[i];
+                boxes[i] = boxes[middle];
+                boxes[middle] = box;
+                int index = order[i];
+                order[i] = order[middle];
+                order[middle] = index;
+                middle++;
+            }
+        return middle == from || middle == to ? from + count / 2 : middle;
+    }
+
+    /**
+     * returns the bucket of a centroid on an axis
+     *
+     * @param centroid the coordinate of the centroid
+     * @param min      the minimal coordinate of the centroids
+     * @param extent   the extent of the centroids
+     * @return the index of the bucket
+     */
+    private static int bucket(double centroid, double min, double extent) {
+        return Math.min(SAH_BUCKETS - 1, (int) (SAH_BUCKETS * (centroid - min) / extent));
+    }
+
+    /**
+     * returns the estimated (not normalized) cost of one side of a split - amount of geometries times surface area
+     *
+     * @param counts      amount of geometries in each bucket
+     * @param bucketBoxes bounding box of each bucket
+     * @param from,to     the range of buckets in the side
+     * @return the cost
+     */
+    private static double sideCost(int[] counts, BoundingBox[] bucketBoxes, int from, int to) {
+        int count = 0;
+        BoundingBox bounds = null;
+        for (int i = from; i < to; i++)
+            if (counts[i] > 0) {
+                count += counts[i];
+                bounds = bounds == null ? bucketBoxes[i] : bounds.union(bucketBoxes[i]);
+            }
+        return count == 0 ? 0 : count * bounds.surfaceArea();
+    }
+
+    /**
+     * returns the union of the bounding boxes of the geometries
+     *
+     * @return the bounding box ; {@link BoundingBox#EMPTY} for an empty list
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox bounds = BoundingBox.EMPTY;
+        for (Intersectable intersectable : geometries) {
+            BoundingBox childBox = intersectable.getBoundingBox();
+            if (childBox.isInfinite())//one of the geometries is unbounded
+                return BoundingBox.INFINITE;
+            bounds = bounds.union(childBox);
+        }
+        return bounds;
     }
 
     /**
@@ -49,15 +288,27 @@ public class Geometries extends Intersectable {
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
         List<GeoPoint> intersections = null;
-        for (Intersectable intersectable : geometries) {
-            List<GeoPoint> geoIntersections = intersectable.findGeoIntersections(ray, maxDistance);
-            if (geoIntersections != null)
-                if (intersections == null)
-                    intersections = new LinkedList<>(geoIntersections);
-                else
-                    intersections.addAll(geoIntersections);
-        }
+        for (Intersectable intersectable : geometries)
+            intersections = addAll(intersections, intersectable.findGeoIntersections(ray, maxDistance));
         return intersections;
     }
 
+    @Override
+    protected boolean intersectHelper(Ray ray, Hit hit) {
+        boolean found = false;
+        for (Intersectable intersectable : geometries)
+            found |= intersectable.intersect(ray, hit);
+        return found;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        Double3 ktr = Double3.ONE;
+        for (Intersectable intersectable : geometries) {
+            ktr = attenuate(ktr, intersectable.findTransparency(ray, maxDistance));
+            if (ktr == Double3.ZERO)//opaque geometry - no need to look further
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
 }
@@ -1,9 +1,6 @@
 package geometries;
 
-import primitives.Color;
-import primitives.Material;
-import primitives.Point;
-import primitives.Vector;
+import primitives.*;
 
 /**
  * this interface is a general interface for every geometric object
@@ -40,6 +37,17 @@ public abstract class Geometry extends Intersectable{
      */
     abstract public Vector getNormal(Point point);
 
+    /**
+     * returns the normal vector to a part of the geometry object (like the face of a mesh) from a given point
+     *
+     * @param point     on the geometry object
+     * @param primitive the index of the part of the geometry ; -1 for simple geometries
+     * @return the normal vector to the geometry object from the given point
+     */
+    public Vector getNormal(Point point, int primitive) {
+        return getNormal(point);
+    }
+
     public Material getMaterial() {
         return material;
     }
@@ -48,4 +56,33 @@ public abstract class Geometry extends Intersectable{
         this.material = material;
         return this;
     }
+
+    /**
+     * counts the intersections of a ray with the geometry up to a maximum distance, without gathering them.
+     * the default is for geometries a ray crosses at most once (like flat geometries)
+     * @param ray the ray
+     * @param maxDistance the maximum distance
+     * @return the amount of intersections
+     */
+    protected int countIntersections(Ray ray, double maxDistance) {
+        return intersectHelper(ray, Hit.get(maxDistance)) ? 1 : 0;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        if (material.kT.equals(Double3.ZERO)) {//opaque - any intersection blocks the ray
+            Hit hit = Hit.get(maxDistance);
+            if (!intersectHelper(ray, hit))
+                return Double3.ONE;
+            hit.occluder = this;
+            return Double3.ZERO;
+        }
+        int count = countIntersections(ray, maxDistance);
+        if (count == 0)
+            return Double3.ONE;
+        Double3 ktr = material.kT;
+        for (int i = 1; i < count; i++)
+            ktr = ktr.product(material.kT);
+        return ktr;
+    }
 }
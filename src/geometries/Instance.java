@@ -0,0 +1,130 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.List;
+
+/**
+ * this class represents a copy of an intersectable placed in the scene by an affine transform.
+ * the copied intersectable (usually a mesh or a list with its own hierarchy) is shared by all of its copies -
+ * instead of transforming it, every ray is transformed into its space. a list of instances, with a hierarchy
+ * of its own, makes a two-level hierarchy of the scene
+ *
+ * @author Elad and Amitay
+ */
+public class Instance extends Intersectable {
+    /**
+     * the copied intersectable
+     */
+    private final Intersectable object;
+    /**
+     * the transform from the space of the intersectable to the space of the scene
+     */
+    private final Transform transform;
+
+    /**
+     * constructor that gets the copied intersectable and its transform
+     *
+     * @param object    the copied intersectable
+     * @param transform the transform from the space of the intersectable to the space of the scene
+     */
+    public Instance(Intersectable object, Transform transform) {
+        this.object = object;
+        this.transform = transform;
+    }
+
+    /**
+     * returns the copied intersectable
+     *
+     * @return the copied intersectable
+     */
+    public Intersectable getObject() {
+        return object;
+    }
+
+    /**
+     * returns the transform of the copy
+     *
+     * @return the transform from the space of the intersectable to the space of the scene
+     */
+    public Transform getTransform() {
+        return transform;
+    }
+
+    /**
+     * the bounding box of the copy is the bounding box of the transformed corners of the intersectable's box
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox box = object.getBoundingBox();
+        if (box == BoundingBox.EMPTY || box.isInfinite())
+            return box;
+        Point[] corners = new Point[8];
+        for (int i = 0; i < 8; i++)
+            corners[i] = transform.transformPoint(new Point(
+                    (i & 1) == 0 ? box.minX : box.maxX,
+                    (i & 2) == 0 ? box.minY : box.maxY,
+                    (i & 4) == 0 ? box.minZ : box.maxZ));
+        return BoundingBox.of(corners);
+    }
+
+    /**
+     * transforms a ray into the space of the intersectable. the distances along the transformed ray are
+     * the distances along the ray multiplied by the length of the transformed direction
+     *
+     * @param ray the ray
+     * @return the transformed direction (not normalized)
+     */
+    private Vector objectDirection(Ray ray) {
+        return transform.inverseVector(ray.getDirection());
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        Vector direction = objectDirection(ray);
+        List<GeoPoint> intersections = object.findGeoIntersections(
+                new Ray(transform.inversePoint(ray.getHead()), direction), maxDistance * direction.length());
+        if (intersections == null)
+            return null;
+        for (GeoPoint gp : intersections) {
+            gp.point = transform.transformPoint(gp.point);
+            gp.transform = gp.transform == null ? transform : gp.transform.then(transform);
+        }
+        return intersections;
+    }
+
+    @Override
+    protected boolean intersectHelper(Ray ray, Hit hit) {
+        Vector direction = objectDirection(ray);
+        double scale = direction.length();
+        //the intersectable records its intersections in its own space
+        //on a miss the hit is restored exactly, since scaling back and forth may change t by round-off
+        Transform previous = hit.transform;
+        double t = hit.t;
+        hit.t *= scale;
+        boolean found = object.intersect(new Ray(transform.inversePoint(ray.getHead()), direction), hit);
+        if (found) {
+            hit.t /= scale;
+            hit.transform = hit.transform == null ? transform : hit.transform.then(transform);
+        } else {
+            hit.t = t;
+            hit.transform = previous;
+        }
+        return found;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        Vector direction = objectDirection(ray);
+        Double3 ktr = object.findTransparency(new Ray(transform.inversePoint(ray.getHead()), direction),
+                maxDistance * direction.length());
+        //the occluder is tested again with rays of this space, so the instance is the occluder and not its part
+        if (ktr == Double3.ZERO)
+            Hit.current().occluder = this;
+        return ktr;
+    }
+}
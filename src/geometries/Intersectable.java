@@ -1,16 +1,27 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
 
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 
+import static primitives.Util.alignZero;
+
 /**
  * this interface is a general interface for every geometric object that will be intersected
  * @author Elad and Amitay
  */
 public abstract class Intersectable {
+    /**
+     * the bounding box of the intersectable, calculated on first use
+     */
+    private BoundingBox boundingBox = null;
+
     /**
      * returns list of all the intersection points of the object with a given ray
      * @param ray the given ray
@@ -26,7 +37,7 @@ public abstract class Intersectable {
      * @return the list of the intersection points ; null if there are no intersections
      */
     public List<Point> findIntersections(Ray ray, double maxDistance){
-        List<GeoPoint> points = findGeoIntersectionsHelper(ray, maxDistance);
+        List<GeoPoint> points = findGeoIntersections(ray, maxDistance);
         if (points == null)
             return null;
         return points.stream().map(gp -> gp.point).toList();
@@ -44,6 +55,20 @@ public abstract class Intersectable {
          * the point
          */
         public Point point;
+        /**
+         * the distance of the point from the head of the ray, known only for points found by
+         * {@link #findClosestGeoIntersection(Ray, double)} ; NaN otherwise
+         */
+        public final double distance;
+        /**
+         * the index of the intersected part of the geometry (like the face of a mesh) ; -1 for simple geometries
+         */
+        public int primitive;
+        /**
+         * the transform from the space of the geometry to the space of the point, for a point on an
+         * {@link Instance} ; null if the geometry is not transformed
+         */
+        public Transform transform = null;
 
         /**
          * simple constructor
@@ -51,8 +76,41 @@ public abstract class Intersectable {
          * @param point the point
          */
         public GeoPoint(Geometry geometry, Point point) {
+            this(geometry, point, -1);
+        }
+
+        /**
+         * constructor of a point on a part of a geometry
+         * @param geometry the geometry
+         * @param point the point
+         * @param primitive the index of the part of the geometry
+         */
+        public GeoPoint(Geometry geometry, Point point, int primitive) {
+            this(geometry, point, primitive, Double.NaN);
+        }
+
+        /**
+         * constructor of a closest intersection, with its distance from the head of the ray
+         * @param geometry the geometry
+         * @param point the point
+         * @param primitive the index of the part of the geometry ; -1 for simple geometries
+         * @param distance the distance of the point from the head of the ray
+         */
+        public GeoPoint(Geometry geometry, Point point, int primitive, double distance) {
             this.geometry = geometry;
             this.point = point;
+            this.primitive = primitive;
+            this.distance = distance;
+        }
+
+        /**
+         * returns the normal to the geometry at the point
+         * @return the normal vector
+         */
+        public Vector getNormal() {
+            if (transform == null)
+                return geometry.getNormal(point, primitive);
+            return transform.transformNormal(geometry.getNormal(transform.inversePoint(point), primitive));
         }
 
         @Override
@@ -71,6 +129,126 @@ public abstract class Intersectable {
         }
     }
 
+    /**
+     * represents the closest intersection found so far along a ray - a mutable record that is filled by
+     * {@link #intersect(Ray, Hit)} instead of allocating intersections. every thread owns one record
+     */
+    public static class Hit {
+        /**
+         * the record of each thread
+         */
+        private static final ThreadLocal<Hit> HITS = ThreadLocal.withInitial(Hit::new);
+
+        /**
+         * the distance of the intersection from the head of the ray ; the maximum distance while nothing is found
+         */
+        public double t;
+        /**
+         * the intersected geometry ; null while nothing is found
+         */
+        public Geometry geometry;
+        /**
+         * the barycentric coordinates of the intersection on a triangle (the weights of the second and third
+         * vertices) ; zero for other geometries
+         */
+        public double u, v;
+        /**
+         * the index of the intersected part of the geometry (like the face of a mesh) ; -1 for simple geometries
+         */
+        public int primitive;
+        /**
+         * the transform from the space of the intersected geometry to the space of the ray, for an intersection
+         * inside an {@link Instance} ; null if the geometry is not transformed
+         */
+        public Transform transform = null;
+        /**
+         * the opaque intersectable that blocked the last ray {@link #findTransparency(Ray, double)} returned
+         * {@link Double3#ZERO} for in the thread - a geometry, a mesh or an instance. not cleared for a new search
+         */
+        public Intersectable occluder = null;
+
+        /**
+         * returns the record of the current thread as it is
+         * @return the record
+         */
+        public static Hit current() {
+            return HITS.get();
+        }
+
+        /**
+         * returns the record of the current thread, cleared for a new search
+         * @param maxDistance the maximum distance of the search
+         * @return the record
+         */
+        public static Hit get(double maxDistance) {
+            return HITS.get().reset(maxDistance);
+        }
+
+        /**
+         * clears the record for a new search
+         * @param maxDistance the maximum distance of the search
+         * @return the record
+         */
+        public Hit reset(double maxDistance) {
+            t = maxDistance;
+            geometry = null;
+            u = 0;
+            v = 0;
+            primitive = -1;
+            transform = null;
+            return this;
+        }
+
+        /**
+         * checks whether an intersection in a given distance is closer than the recorded one.
+         * while nothing is found, an intersection on the maximum distance is accepted as well
+         * @param distance the distance of the intersection
+         * @return true if the intersection should be recorded, false otherwise
+         */
+        public boolean closer(double distance) {
+            return geometry == null ? alignZero(distance - t) <= 0 : distance < t;
+        }
+
+        /**
+         * records an intersection
+         * @param distance the distance of the intersection
+         * @param geometry the intersected geometry
+         * @return true
+         */
+        public boolean set(double distance, Geometry geometry) {
+            return set(distance, geometry, 0, 0);
+        }
+
+        /**
+         * records an intersection with its barycentric coordinates
+         * @param distance the distance of the intersection
+         * @param geometry the intersected geometry
+         * @param u,v the barycentric coordinates
+         * @return true
+         */
+        public boolean set(double distance, Geometry geometry, double u, double v) {
+            return set(distance, geometry, u, v, -1);
+        }
+
+        /**
+         * records an intersection with a part of a geometry
+         * @param distance the distance of the intersection
+         * @param geometry the intersected geometry
+         * @param u,v the barycentric coordinates
+         * @param primitive the index of the intersected part of the geometry
+         * @return true
+         */
+        public boolean set(double distance, Geometry geometry, double u, double v, int primitive) {
+            this.t = distance;
+            this.geometry = geometry;
+            this.u = u;
+            this.v = v;
+            this.primitive = primitive;
+            this.transform = null;
+            return true;
+        }
+    }
+
     /**
      * find all the intersections of an intersectable with a ray
      * @param ray the ray
@@ -82,12 +260,14 @@ public abstract class Intersectable {
 
     /**
      * find intersections of an intersectable with a ray up to a maximum distance
-     * using NVI design pattern
+     * using NVI design pattern, rays that miss the bounding box are rejected before the exact test
      * @param ray the ray
      * @param maxDistance the maximum distance
      * @return list of the intersections as geo points ; null if there are no intersections
      */
     public final List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        if (!getBoundingBox().intersects(ray, maxDistance))
+            return null;
         return findGeoIntersectionsHelper(ray, maxDistance);
     }
 
@@ -100,4 +280,143 @@ public abstract class Intersectable {
      */
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance);
 
+    /**
+     * adds intersections into a list of intersections, creating the list if needed.
+     * used by the collections of intersectables for gathering the intersections of their parts
+     * @param intersections the list ; may be null
+     * @param added the added intersections ; may be null
+     * @return the list ; null if both are null
+     */
+    static List<GeoPoint> addAll(List<GeoPoint> intersections, List<GeoPoint> added) {
+        if (added == null)
+            return intersections;
+        if (intersections == null)
+            return new LinkedList<>(added);
+        intersections.addAll(added);
+        return intersections;
+    }
+
+    /**
+     * multiplies the transparency gathered along a ray by the transparency of one more part.
+     * used by the collections of intersectables for gathering the transparency of their parts
+     * @param ktr the transparency gathered so far
+     * @param kt the transparency of the part ({@link Double3#ZERO} if it is opaque, {@link Double3#ONE} if the ray misses it)
+     * @return the gathered transparency ; {@link Double3#ZERO} if the part is opaque
+     */
+    static Double3 attenuate(Double3 ktr, Double3 kt) {
+        if (kt == Double3.ZERO)
+            return Double3.ZERO;
+        return kt == Double3.ONE ? ktr : ktr.product(kt);
+    }
+
+    /**
+     * find the closest intersection of an intersectable with a ray
+     * @param ray the ray
+     * @return the closest intersection, with its distance ; null if there are no intersections
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * find the closest intersection of an intersectable with a ray up to a maximum distance.
+     * a wrapper of {@link #intersect(Ray, Hit)} with the record of the current thread
+     * @param ray the ray
+     * @param maxDistance the maximum distance
+     * @return the closest intersection, with its distance ; null if there are no intersections
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        Hit hit = Hit.get(maxDistance);
+        if (!intersect(ray, hit))
+            return null;
+        GeoPoint closest = new GeoPoint(hit.geometry, ray.getPoint(hit.t), hit.primitive, hit.t);
+        closest.transform = hit.transform;
+        return closest;
+    }
+
+    /**
+     * finds the closest intersection of an intersectable with a ray that is closer than the one in a record,
+     * without allocating anything. the distance of the closest intersection found so far is used as the maximum
+     * distance of the rest of the search, so farther geometries and nodes are skipped.
+     * using NVI design pattern, rays that miss the bounding box are rejected before the exact test
+     * @param ray the ray
+     * @param hit the record of the closest intersection so far, updated if a closer one is found
+     * @return true if a closer intersection was found, false otherwise
+     */
+    public final boolean intersect(Ray ray, Hit hit) {
+        if (!getBoundingBox().intersects(ray, hit.t))
+            return false;
+        return intersectHelper(ray, hit);
+    }
+
+    /**
+     * finds the closest intersection of an intersectable with a ray that is closer than the one in a record
+     * using NVI design pattern
+     * @param ray the ray
+     * @param hit the record of the closest intersection so far, updated if a closer one is found
+     * @return true if a closer intersection was found, false otherwise
+     */
+    protected abstract boolean intersectHelper(Ray ray, Hit hit);
+
+    /**
+     * finds the transparency of an intersectable along a ray up to a maximum distance - the product of the
+     * transparency factors (kT) of all the intersections, without collecting them.
+     * using NVI design pattern, rays that miss the bounding box are rejected before the exact test
+     * @param ray the ray
+     * @param maxDistance the maximum distance
+     * @return the transparency ; {@link Double3#ONE} if there are no intersections,
+     * {@link Double3#ZERO} as soon as an opaque geometry is intersected - the opaque geometry (or the instance
+     * it is in) is recorded in {@link Hit#occluder} of the current thread
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance) {
+        if (!getBoundingBox().intersects(ray, maxDistance))
+            return Double3.ONE;
+        return findTransparencyHelper(ray, maxDistance);
+    }
+
+    /**
+     * finds the transparency of an intersectable along a ray up to a maximum distance
+     * using NVI design pattern
+     * @param ray the ray
+     * @param maxDistance the maximum distance
+     * @return the transparency ; {@link Double3#ONE} if there are no intersections,
+     * {@link Double3#ZERO} as soon as an opaque geometry is intersected
+     */
+    protected abstract Double3 findTransparencyHelper(Ray ray, double maxDistance);
+
+    /**
+     * finds an opaque intersectable that blocks a ray up to a maximum distance - a geometry, a mesh or an
+     * instance, which can be tested again with rays of the same space by {@link #findTransparency(Ray, double)}.
+     * a wrapper of {@link #findTransparency(Ray, double)} that returns the occluder it recorded
+     * @param ray the ray
+     * @param maxDistance the maximum distance
+     * @return the occluder ; null if the ray is not blocked by an opaque intersectable
+     */
+    public final Intersectable findOccluder(Ray ray, double maxDistance) {
+        return findTransparency(ray, maxDistance) == Double3.ZERO ? Hit.current().occluder : null;
+    }
+
+    /**
+     * returns the axis-aligned bounding box of the intersectable (calculated once and cached)
+     * @return the bounding box ; {@link BoundingBox#INFINITE} if the intersectable is unbounded
+     */
+    public final BoundingBox getBoundingBox() {
+        if (boundingBox == null)
+            boundingBox = calcBoundingBox();
+        return boundingBox;
+    }
+
+    /**
+     * drops the cached bounding box, so it will be calculated again on next use
+     */
+    protected void resetBoundingBox() {
+        boundingBox = null;
+    }
+
+    /**
+     * calculates the axis-aligned bounding box of the intersectable
+     * @return the bounding box ; {@link BoundingBox#INFINITE} if the intersectable is unbounded
+     */
+    protected abstract BoundingBox calcBoundingBox();
+
 }
@@ -55,23 +55,48 @@ public class Plane extends Geometry {
     }
 
     @Override
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+    protected BoundingBox calcBoundingBox() {
+        return BoundingBox.INFINITE;
+    }
+
+    /**
+     * returns the distance from the head of a ray to its intersection with the plane
+     *
+     * @param ray the ray
+     * @return the distance ; NaN if there is no intersection (the ray is parallel to the plane, starts at it
+     * or goes away from it)
+     */
+    double distance(Ray ray) {
         //nv = cosine of the angle between ray and normal
         double nv = Util.alignZero(normal.dotProduct(ray.getDirection()));
         if (Util.isZero(nv))//ray is parallel to the plane - no intersections
-            return null;
+            return Double.NaN;
 
         if (ray.getHead().equals(q))//ray starts at the plane's q point
-            return null;
+            return Double.NaN;
 
-        Vector headToQ = q.subtract(ray.getHead());
-        double nHeadToQ = Util.alignZero(normal.dotProduct(headToQ));
+        //headToQ = vector from ray's head to q, in raw coordinates
+        Point head = ray.getHead();
+        double nHeadToQ = Util.alignZero((q.getX() - head.getX()) * normal.getX()
+                + (q.getY() - head.getY()) * normal.getY() + (q.getZ() - head.getZ()) * normal.getZ());
         if (Util.isZero(nHeadToQ))//ray starts at the plane - no intersections
-            return null;
+            return Double.NaN;
         //t = distance from head to intersection
-        double t = Util.alignZero(nHeadToQ/nv);
-        if (t < 0 || Util.alignZero(t - maxDistance) > 0)//no intersections in the distance
+        double t = Util.alignZero(nHeadToQ / nv);
+        return t < 0 ? Double.NaN : t;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double t = distance(ray);
+        if (Double.isNaN(t) || Util.alignZero(t - maxDistance) > 0)//no intersections in the distance
             return null;
-        return List.of(new GeoPoint(this,ray.getPoint(t)));
+        return List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
+
+    @Override
+    protected boolean intersectHelper(Ray ray, Hit hit) {
+        double t = distance(ray);
+        return !Double.isNaN(t) && hit.closer(t) && hit.set(t, this);
     }
 }
@@ -95,12 +95,32 @@ public class Polygon extends Geometry {
         return plane.getNormal();
     }
 
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return BoundingBox.of(vertices.toArray(new Point[0]));
+    }
+
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<Point> planeIntersection = plane.findIntersections(ray, maxDistance);
-        if (planeIntersection == null)//no intersections with the plane
+        double t = plane.distance(ray);
+        if (Double.isNaN(t) || Util.alignZero(t - maxDistance) > 0)//no intersections with the plane in the distance
             return null;
+        return contains(ray) ? List.of(new GeoPoint(this, ray.getPoint(t))) : null;
+    }
+
+    @Override
+    protected boolean intersectHelper(Ray ray, Hit hit) {
+        double t = plane.distance(ray);
+        return !Double.isNaN(t) && hit.closer(t) && contains(ray) && hit.set(t, this);
+    }
 
+    /**
+     * checks whether a ray that intersects the plane of the polygon passes inside the polygon
+     *
+     * @param ray the ray
+     * @return true if the intersection with the plane is inside the polygon, false otherwise
+     */
+    private boolean contains(Ray ray) {
         // vectors from ray's head to vertices
         List<Vector> vectors = new LinkedList<Vector>();
         for (Point vertex : vertices)
@@ -117,8 +137,6 @@ public class Polygon extends Geometry {
             if (!Util.compareSign(normals.get(i).dotProduct(ray.getDirection()), normals.get((i + 1) % normals.size()).dotProduct(ray.getDirection())))
                 flag = false;
 
-        if (flag)
-            return List.of(new GeoPoint(this, planeIntersection.get(0)));
-        return null;
+        return flag;
     }
 }
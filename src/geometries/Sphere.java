@@ -31,18 +31,28 @@ public class Sphere extends RadialGeometry {
         return point.subtract(center).normalize();
     }
 
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
         if (center.equals(ray.getHead()))//ray starts at center
             return List.of(new GeoPoint(this, ray.getPoint(radius)));
 
-        Vector headToCenter = center.subtract(ray.getHead());
+        //headToCenter = vector from ray's head to sphere's center, in raw coordinates
+        Point head = ray.getHead();
+        Vector direction = ray.getDirection();
+        double hx = center.getX() - head.getX(), hy = center.getY() - head.getY(), hz = center.getZ() - head.getZ();
+        double lengthSquared = hx * hx + hy * hy + hz * hz;
         //tm = distance from ray's head to point in ray that is closest to sphere's center
-        double tm = Util.alignZero(ray.getDirection().dotProduct(headToCenter));
+        double tm = Util.alignZero(hx * direction.getX() + hy * direction.getY() + hz * direction.getZ());
         //d = distance from sphere's center to the closest point in the ray
-        double d = Util.alignZero(Math.sqrt(headToCenter.lengthSquared() - tm * tm));
+        double d = Util.alignZero(Math.sqrt(lengthSquared - tm * tm));
 
-        if (d >= radius || (tm < 0 && headToCenter.lengthSquared() >= radius * radius)) // there are no intersections
+        if (d >= radius || (tm < 0 && lengthSquared >= radius * radius)) // there are no intersections
             return null;
 
         //th = distance between intersection and the closest point in the ray to sphere's center
@@ -58,4 +68,45 @@ public class Sphere extends RadialGeometry {
             return List.of(new GeoPoint(this, ray.getPoint(tm + th)));
         return null;
     }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        if (center.equals(ray.getHead()))//ray starts at center
+            return 1;
+
+        //headToCenter = vector from ray's head to sphere's center, in raw coordinates
+        Point head = ray.getHead();
+        Vector direction = ray.getDirection();
+        double hx = center.getX() - head.getX(), hy = center.getY() - head.getY(), hz = center.getZ() - head.getZ();
+        double lengthSquared = hx * hx + hy * hy + hz * hz;
+        double tm = Util.alignZero(hx * direction.getX() + hy * direction.getY() + hz * direction.getZ());
+        double d = Util.alignZero(Math.sqrt(lengthSquared - tm * tm));
+        if (d >= radius || (tm < 0 && lengthSquared >= radius * radius)) // there are no intersections
+            return 0;
+        double th = Util.alignZero(Math.sqrt(radius * radius - d * d));
+
+        int count = tm - th > 0 && Util.alignZero((tm - th) - maxDistance) <= 0 ? 1 : 0;
+        return Util.alignZero(tm + th - maxDistance) <= 0 ? count + 1 : count;
+    }
+
+    @Override
+    protected boolean intersectHelper(Ray ray, Hit hit) {
+        if (center.equals(ray.getHead()))//ray starts at center
+            return hit.closer(radius) && hit.set(radius, this);
+
+        //headToCenter = vector from ray's head to sphere's center, in raw coordinates
+        Point head = ray.getHead();
+        Vector direction = ray.getDirection();
+        double hx = center.getX() - head.getX(), hy = center.getY() - head.getY(), hz = center.getZ() - head.getZ();
+        double lengthSquared = hx * hx + hy * hy + hz * hz;
+        double tm = Util.alignZero(hx * direction.getX() + hy * direction.getY() + hz * direction.getZ());
+        double d = Util.alignZero(Math.sqrt(lengthSquared - tm * tm));
+        if (d >= radius || (tm < 0 && lengthSquared >= radius * radius)) // there are no intersections
+            return false;
+        double th = Util.alignZero(Math.sqrt(radius * radius - d * d));
+
+        //the nearer intersection if it is in front of the head, the farther one otherwise
+        double t = tm - th > 0 ? tm - th : tm + th;
+        return hit.closer(t) && hit.set(t, this);
+    }
 }
@@ -2,11 +2,12 @@ package geometries;
 
 import primitives.Point;
 import primitives.Ray;
-import primitives.Util;
 import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
+
 
 /**
  * Triangle class represents two-dimensional triangle
@@ -15,6 +16,23 @@ import java.util.List;
  */
 
 public class Triangle extends Polygon {
+    /**
+     * the square of the sine of the angle between a ray and a triangle below which the ray is parallel to it
+     */
+    private static final double PARALLEL = 1e-24;
+    /**
+     * the first vertex
+     */
+    private final double x0, y0, z0;
+    /**
+     * the edge from the first vertex to the second one
+     */
+    private final double e1x, e1y, e1z;
+    /**
+     * the edge from the first vertex to the third one
+     */
+    private final double e2x, e2y, e2z;
+
     /**
      * constructor that gets 3 points and creates the triangle
      *
@@ -24,28 +42,71 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point p1, Point p2, Point p3) {
         super(p1, p2, p3);
+        x0 = p1.getX();
+        y0 = p1.getY();
+        z0 = p1.getZ();
+        e1x = p2.getX() - x0;
+        e1y = p2.getY() - y0;
+        e1z = p2.getZ() - z0;
+        e2x = p3.getX() - x0;
+        e2y = p3.getY() - y0;
+        e2z = p3.getZ() - z0;
     }
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<Point> planeIntersection = plane.findIntersections(ray, maxDistance);
-        if (planeIntersection == null)//no intersections with the plane
-            return null;
-        // vectors from ray's head to vertices
-        Vector v1 = vertices.get(0).subtract(ray.getHead());
-        Vector v2 = vertices.get(1).subtract(ray.getHead());
-        Vector v3 = vertices.get(2).subtract(ray.getHead());
-
-        Vector n1 = v1.crossProduct(v2).normalize();
-        Vector n2 = v2.crossProduct(v3).normalize();
-        Vector n3 = v3.crossProduct(v1).normalize();
-
-        //if plane's intersection is inside the triangle
-        if (Util.compareSign(ray.getDirection().dotProduct(n1), ray.getDirection().dotProduct(n2)) &&
-                Util.compareSign(ray.getDirection().dotProduct(n2), ray.getDirection().dotProduct(n3)) &&
-                Util.compareSign(ray.getDirection().dotProduct(n3), ray.getDirection().dotProduct(n1)))
-            return List.of(new GeoPoint(this, planeIntersection.get(0)));
-
-        return null;
+        Hit hit = new Hit().reset(maxDistance);
+        return intersectHelper(ray, hit) ? List.of(new GeoPoint(this, ray.getPoint(hit.t))) : null;
+    }
+
+    @Override
+    protected boolean intersectHelper(Ray ray, Hit hit) {
+        return intersect(ray, hit, this, -1, x0, y0, z0, e1x, e1y, e1z, e2x, e2y, e2z);
+    }
+
+    /**
+     * intersects a ray with a triangle with the Möller–Trumbore algorithm - solves the distance and the barycentric
+     * coordinates together, from the first vertex and the edges of the triangle. the vertices and the edges of the
+     * triangle are not considered inside it
+     *
+     * @param ray         the ray
+     * @param hit         the record of the closest intersection so far, updated if the triangle is closer
+     * @param geometry    the geometry the triangle belongs to
+     * @param primitive   the index of the triangle in the geometry ; -1 for a simple triangle
+     * @param x0,y0,z0    the first vertex
+     * @param e1x,e1y,e1z the edge from the first vertex to the second one
+     * @param e2x,e2y,e2z the edge from the first vertex to the third one
+     * @return true if the triangle is intersected closer than the recorded intersection, false otherwise
+     */
+    static boolean intersect(Ray ray, Hit hit, Geometry geometry, int primitive, double x0, double y0, double z0,
+                             double e1x, double e1y, double e1z, double e2x, double e2y, double e2z) {
+        Point head = ray.getHead();
+        Vector direction = ray.getDirection();
+        double dx = direction.getX(), dy = direction.getY(), dz = direction.getZ();
+        //p = direction x e2
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        //ray is parallel to the triangle - det is the sine of the angle scaled by the lengths of the edges,
+        //so it is compared to the edges and small triangles are not rejected
+        double edges = (e1x * e1x + e1y * e1y + e1z * e1z) * (e2x * e2x + e2y * e2y + e2z * e2z);
+        if (det * det <= PARALLEL * edges)
+            return false;
+        double inverse = 1 / det;
+
+        //s = vector from the first vertex to ray's head
+        double sx = head.getX() - x0, sy = head.getY() - y0, sz = head.getZ() - z0;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inverse);
+        if (u <= 0 || u >= 1)//outside the triangle or on one of its edges
+            return false;
+
+        //q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inverse);
+        if (v <= 0 || alignZero(u + v - 1) >= 0)
+            return false;
+
+        //t = distance from head to intersection
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverse);
+        return t > 0 && hit.closer(t) && hit.set(t, geometry, u, v, primitive);
     }
 }
@@ -0,0 +1,229 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * this class represents a mesh of triangles with one material, stored in flat arrays:
+ * the coordinates of all the vertices in one array, and three vertex indexes for each face in another,
+ * so a vertex shared by several faces is stored once. the faces are kept in a bounding volume hierarchy of
+ * their own (see {@link FlatTree})
+ *
+ * @author Elad and Amitay
+ */
+public class TriangleMesh extends Geometry {
+    /**
+     * the coordinates of the vertices - three numbers for each vertex
+     */
+    private final double[] positions;
+    /**
+     * the vertex indexes of the faces - three numbers for each face, ordered so the faces of every leaf are adjacent
+     */
+    private final int[] faces;
+    /**
+     * the hierarchy over the bounding boxes of the faces
+     */
+    private final FlatTree tree;
+    /**
+     * the unit normals of the faces - three numbers for each face, calculated on first use
+     */
+    private volatile double[] normals = null;
+    /**
+     * constructor that gets the coordinates of the vertices and the vertex indexes of the faces
+     *
+     * @param positions the coordinates - three numbers for each vertex
+     * @param faces     the vertex indexes - three numbers for each face
+     * @throws IllegalArgumentException if the arrays are not made of triads or a face has an illegal vertex index
+     */
+    public TriangleMesh(double[] positions, int[] faces) {
+        if (positions.length % 3 != 0)
+            throw new IllegalArgumentException("the positions must have three coordinates for each vertex");
+        if (faces.length % 3 != 0)
+            throw new IllegalArgumentException("the faces must have three vertices each");
+        int vertexCount = positions.length / 3;
+        for (int index : faces)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("illegal vertex index " + index + " in the faces");
+        this.positions = positions.clone();
+
+        int faceCount = faces.length / 3;
+        BoundingBox[] boxes = new BoundingBox[faceCount];
+        for (int face = 0; face < faceCount; face++)
+            boxes[face] = faceBox(faces, face);
+        tree = new FlatTree(boxes, 0);
+
+        this.faces = new int[faces.length];
+        for (int i = 0; i < faceCount; i++)
+            System.arraycopy(faces, 3 * tree.getItem(i), this.faces, 3 * i, 3);
+    }
+
+    /**
+     * constructor that gets the vertices and the vertex indexes of the faces
+     *
+     * @param vertices the vertices
+     * @param faces    the vertex indexes - three numbers for each face
+     * @throws IllegalArgumentException if the faces are not made of triads or a face has an illegal vertex index
+     */
+    public TriangleMesh(Point[] vertices, int[] faces) {
+        this(coordinates(vertices), faces);
+    }
+
+    /**
+     * returns the coordinates of vertices in one array
+     *
+     * @param vertices the vertices
+     * @return the coordinates - three numbers for each vertex
+     */
+    private static double[] coordinates(Point[] vertices) {
+        double[] positions = new double[3 * vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            positions[3 * i] = vertices[i].getX();
+            positions[3 * i + 1] = vertices[i].getY();
+            positions[3 * i + 2] = vertices[i].getZ();
+        }
+        return positions;
+    }
+
+    /**
+     * returns the bounding box of a face
+     *
+     * @param faces the vertex indexes of the faces
+     * @param face  the index of the face
+     * @return the bounding box
+     */
+    private BoundingBox faceBox(int[] faces, int face) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        return new BoundingBox(
+                Math.min(positions[a], Math.min(positions[b], positions[c])),
+                Math.min(positions[a + 1], Math.min(positions[b + 1], positions[c + 1])),
+                Math.min(positions[a + 2], Math.min(positions[b + 2], positions[c + 2])),
+                Math.max(positions[a], Math.max(positions[b], positions[c])),
+                Math.max(positions[a + 1], Math.max(positions[b + 1], positions[c + 1])),
+                Math.max(positions[a + 2], Math.max(positions[b + 2], positions[c + 2])));
+    }
+
+    /**
+     * returns the amount of faces in the mesh
+     *
+     * @return the amount of faces
+     */
+    public int getFaceCount() {
+        return faces.length / 3;
+    }
+
+    /**
+     * returns the amount of vertices in the mesh
+     *
+     * @return the amount of vertices
+     */
+    public int getVertexCount() {
+        return positions.length / 3;
+    }
+
+    /**
+     * returns the normals of the faces, calculating them on first use
+     *
+     * @return the normals - three numbers for each face
+     */
+    private double[] normals() {
+        double[] result = normals;
+        if (result == null) {//calculating twice in two threads gives the same result
+            result = new double[faces.length];
+            for (int face = 0; face < faces.length / 3; face++) {
+                int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+                double e1x = positions[b] - positions[a], e1y = positions[b + 1] - positions[a + 1], e1z = positions[b + 2] - positions[a + 2];
+                double e2x = positions[c] - positions[a], e2y = positions[c + 1] - positions[a + 1], e2z = positions[c + 2] - positions[a + 2];
+                double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+                double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+                if (length > 0) {//degenerate faces are never intersected
+                    result[3 * face] = nx / length;
+                    result[3 * face + 1] = ny / length;
+                    result[3 * face + 2] = nz / length;
+                }
+            }
+            normals = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Vector getNormal(Point point, int primitive) {
+        if (primitive < 0)
+            return getNormal(point);
+        double[] n = normals();
+        return new Vector(n[3 * primitive], n[3 * primitive + 1], n[3 * primitive + 2]);
+    }
+
+    /**
+     * a point alone does not tell the face it is on - the normal is given only with the face of an intersection
+     * (see {@link #getNormal(Point, int)})
+     *
+     * @param point on the mesh
+     * @return nothing
+     * @throws IllegalArgumentException always
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        throw new IllegalArgumentException("the normal of a mesh needs the face of the point");
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return tree.getBoundingBox();
+    }
+
+    /**
+     * intersects a ray with a face
+     *
+     * @param ray  the ray
+     * @param hit  the record of the closest intersection so far, updated if the face is closer
+     * @param face the index of the face
+     * @return true if the face is intersected closer than the recorded intersection, false otherwise
+     */
+    private boolean intersectFace(Ray ray, Hit hit, int face) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        double x0 = positions[a], y0 = positions[a + 1], z0 = positions[a + 2];
+        return Triangle.intersect(ray, hit, this, face, x0, y0, z0,
+                positions[b] - x0, positions[b + 1] - y0, positions[b + 2] - z0,
+                positions[c] - x0, positions[c + 1] - y0, positions[c + 2] - z0);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = null;
+        Hit hit = new Hit();
+        FlatTree.Cursor cursor = tree.cursor(ray);
+        for (int face = cursor.next(maxDistance); face >= 0; face = cursor.next(maxDistance))
+            if (intersectFace(ray, hit.reset(maxDistance), face)) {
+                if (intersections == null)
+                    intersections = new LinkedList<>();
+                intersections.add(new GeoPoint(this, ray.getPoint(hit.t), face));
+            }
+        return intersections;
+    }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        int count = 0;
+        Hit hit = Hit.get(maxDistance);
+        FlatTree.Cursor cursor = tree.cursor(ray);
+        for (int face = cursor.next(maxDistance); face >= 0; face = cursor.next(maxDistance))
+            if (intersectFace(ray, hit.reset(maxDistance), face))
+                count++;
+        return count;
+    }
+
+    @Override
+    protected boolean intersectHelper(Ray ray, Hit hit) {
+        boolean found = false;
+        //the cursor skips the nodes behind the closest intersection found so far
+        FlatTree.Cursor cursor = tree.cursor(ray);
+        for (int face = cursor.next(hit.t); face >= 0; face = cursor.next(hit.t))
+            found |= intersectFace(ray, hit, face);
+        return found;
+    }
+}
@@ -38,8 +38,18 @@ public class Tube extends RadialGeometry {
         return point.subtract(O).normalize();
     }
 
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return BoundingBox.INFINITE;
+    }
+
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
         return null;
     }
+
+    @Override
+    protected boolean intersectHelper(Ray ray, Hit hit) {
+        return false;
+    }
 }
@@ -0,0 +1,382 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * this class represents a uniform grid of voxels over geometries, traversed with 3D-DDA.
+ * every voxel holds the geometries whose bounding boxes overlap it, and a ray tests only the geometries
+ * of the voxels it passes through. suits dense and evenly spread scenes better than a hierarchy
+ *
+ * @author Elad and Amitay
+ */
+public class UniformGrid extends Intersectable {
+    /**
+     * wanted amount of voxels per geometry, used to pick the resolution
+     */
+    private static final double DENSITY = 3;
+    /**
+     * maximal amount of voxels on each axis
+     */
+    private static final int MAX_RESOLUTION = 128;
+
+    /**
+     * the geometries with a bounding box
+     */
+    private final Intersectable[] primitives;
+    /**
+     * the geometries without a bounding box (like planes), tested for every ray
+     */
+    private final Intersectable[] unbounded;
+    /**
+     * the bounds of the grid
+     */
+    private final BoundingBox box;
+    /**
+     * amount of voxels on each axis
+     */
+    private final int[] resolution = new int[3];
+    /**
+     * the size of a voxel on each axis
+     */
+    private final double[] voxelSize = new double[3];
+    /**
+     * index of the first geometry of each voxel in {@link #voxelPrimitives}, with the total amount at the end
+     */
+    private final int[] voxelStart;
+    /**
+     * the indexes of the geometries of all the voxels, voxel after voxel
+     */
+    private final int[] voxelPrimitives;
+    /**
+     * the cursor of each thread
+     */
+    private final ThreadLocal<Cursor> cursors;
+
+    /**
+     * constructor that gets geometries and builds the grid over them, with resolution picked by the amount
+     * of geometries and the bounds of the scene
+     *
+     * @param geometries the geometries (nested lists are flattened)
+     */
+    public UniformGrid(Geometries geometries) {
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> unboundedList = new ArrayList<>();
+        geometries.flatten(bounded, unboundedList);
+        primitives = bounded.toArray(new Intersectable[0]);
+        unbounded = unboundedList.toArray(new Intersectable[0]);
+        cursors = ThreadLocal.withInitial(Cursor::new);
+
+        BoundingBox bounds = BoundingBox.EMPTY;
+        for (Intersectable primitive : primitives)
+            bounds = bounds.union(primitive.getBoundingBox());
+        box = primitives.length == 0 ? BoundingBox.EMPTY
+                : new BoundingBox(bounds.minX - BoundingBox.PADDING, bounds.minY - BoundingBox.PADDING,
+                bounds.minZ - BoundingBox.PADDING, bounds.maxX + BoundingBox.PADDING,
+                bounds.maxY + BoundingBox.PADDING, bounds.maxZ + BoundingBox.PADDING);
+
+        //voxels per unit, so the volume of the grid has about DENSITY voxels per geometry.
+        //flat axes (thinner than a voxel of the longest axis at the highest resolution) get a single voxel
+        //and are left out of the volume, so flat scenes get their voxels on the other axes
+        double[] extent = {box.maxX - box.minX, box.maxY - box.minY, box.maxZ - box.minZ};
+        double maxExtent = Math.max(extent[0], Math.max(extent[1], extent[2]));
+        boolean[] flat = new boolean[3];
+        double volume = 1;
+        int dimensions = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            flat[axis] = extent[axis] <= maxExtent / MAX_RESOLUTION;
+            if (!flat[axis]) {
+                volume *= extent[axis];
+                dimensions++;
+            }
+        }
+        double voxelsPerUnit = Math.pow(DENSITY * primitives.length / volume, 1.0 / dimensions);
+        for (int axis = 0; axis < 3; axis++) {
+            resolution[axis] = primitives.length == 0 || flat[axis] ? 1
+                    : Math.max(1, Math.min(MAX_RESOLUTION, (int) Math.round(extent[axis] * voxelsPerUnit)));
+            voxelSize[axis] = primitives.length == 0 ? 1 : extent[axis] / resolution[axis];
+        }
+
+        //count the geometries of each voxel, then fill them in
+        int voxels = resolution[0] * resolution[1] * resolution[2];
+        voxelStart = new int[voxels + 1];
+        int[][] ranges = new int[primitives.length][];
+        for (int i = 0; i < primitives.length; i++) {
+            ranges[i] = voxelRange(primitives[i].getBoundingBox());
+            forEachVoxel(ranges[i], voxel -> voxelStart[voxel + 1]++);
+        }
+        for (int voxel = 0; voxel < voxels; voxel++)
+            voxelStart[voxel + 1] += voxelStart[voxel];
+        voxelPrimitives = new int[voxelStart[voxels]];
+        int[] filled = Arrays.copyOf(voxelStart, voxels);
+        for (int i = 0; i < primitives.length; i++) {
+            int primitive = i;
+            forEachVoxel(ranges[i], voxel -> voxelPrimitives[filled[voxel]++] = primitive);
+        }
+    }
+
+    /**
+     * returns the amount of voxels on each axis
+     *
+     * @return the resolution (x, y, z)
+     */
+    public int[] getResolution() {
+        return resolution.clone();
+    }
+
+    /**
+     * returns the range of voxels a bounding box overlaps
+     *
+     * @param bounds the bounding box
+     * @return the first and last voxel on each axis (minX, minY, minZ, maxX, maxY, maxZ)
+     */
+    private int[] voxelRange(BoundingBox bounds) {
+        return new int[]{voxel(bounds.minX, 0), voxel(bounds.minY, 1), voxel(bounds.minZ, 2),
+                voxel(bounds.maxX, 0), voxel(bounds.maxY, 1), voxel(bounds.maxZ, 2)};
+    }
+
+    /**
+     * runs an action on every voxel of a range
+     *
+     * @param range  the range of voxels (minX, minY, minZ, maxX, maxY, maxZ)
+     * @param action the action, gets the index of the voxel
+     */
+    private void forEachVoxel(int[] range, IntConsumer action) {
+        for (int z = range[2]; z <= range[5]; z++)
+            for (int y = range[1]; y <= range[4]; y++)
+                for (int x = range[0]; x <= range[3]; x++)
+                    action.accept(index(x, y, z));
+    }
+
+    /**
+     * returns the voxel of a coordinate on an axis
+     *
+     * @param coordinate the coordinate
+     * @param axis       the axis
+     * @return the voxel on the axis
+     */
+    private int voxel(double coordinate, int axis) {
+        double min = axis == 0 ? box.minX : axis == 1 ? box.minY : box.minZ;
+        int voxel = (int) ((coordinate - min) / voxelSize[axis]);
+        return Math.max(0, Math.min(resolution[axis] - 1, voxel));
+    }
+
+    /**
+     * returns the index of a voxel in the arrays
+     *
+     * @param x,y,z the voxel on each axis
+     * @return the index
+     */
+    private int index(int x, int y, int z) {
+        return (z * resolution[1] + y) * resolution[0] + x;
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return unbounded.length > 0 ? BoundingBox.INFINITE : box;
+    }
+
+    /**
+     * returns the distance in which a ray enters the bounds of the grid
+     *
+     * @param head      the head of the ray
+     * @param direction the direction of the ray
+     * @return the entering distance (zero if the head is inside) ; infinity if the ray misses the grid
+     */
+    private double enter(Point head, Point direction) {
+        double tMin = 0, tMax = Double.POSITIVE_INFINITY;
+        double[] origin = {head.getX(), head.getY(), head.getZ()};
+        double[] dir = {direction.getX(), direction.getY(), direction.getZ()};
+        double[] min = {box.minX, box.minY, box.minZ};
+        double[] max = {box.maxX, box.maxY, box.maxZ};
+        for (int axis = 0; axis < 3; axis++) {
+            if (dir[axis] == 0) {
+                if (origin[axis] < min[axis] || origin[axis] > max[axis])
+                    return Double.POSITIVE_INFINITY;
+                continue;
+            }
+            double t1 = (min[axis] - origin[axis]) / dir[axis], t2 = (max[axis] - origin[axis]) / dir[axis];
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax ? tMin : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * the walk of a ray through the voxels of the grid (3D-DDA), that hands out the geometries of the voxels
+     * one after the other. a geometry in several voxels is handed out once for every ray (by a mailbox of the
+     * last ray that got every geometry), and the maximum distance is given again for every geometry, so a query
+     * that finds closer intersections on the way stops before the farther voxels.
+     * every thread reuses its own cursor, so a walk allocates nothing
+     */
+    private class Cursor {
+        /**
+         * the current voxel on each axis
+         */
+        private final int[] voxel = new int[3];
+        /**
+         * the step between voxels on each axis (1, -1 or 0)
+         */
+        private final int[] step = new int[3];
+        /**
+         * the distance of the next voxel border on each axis
+         */
+        private final double[] tNext = new double[3];
+        /**
+         * the distance between voxel borders on each axis
+         */
+        private final double[] tDelta = new double[3];
+        /**
+         * number of the last ray that got each geometry
+         */
+        private final int[] stamps = new int[primitives.length];
+        /**
+         * number of the current ray
+         */
+        private int rayNumber = 0;
+        /**
+         * the range of the geometries of the current voxel that were not handed out yet
+         */
+        private int next, end;
+        /**
+         * false once the walk passed the maximum distance or left the grid
+         */
+        private boolean walking;
+
+        /**
+         * starts a walk at the voxel in which the ray enters the grid
+         *
+         * @param ray         the ray
+         * @param maxDistance the maximum distance
+         * @return the cursor itself
+         */
+        private Cursor start(Ray ray, double maxDistance) {
+            if (++rayNumber == 0) {//the numbers overflowed - forget the old stamps
+                Arrays.fill(stamps, 0);
+                rayNumber = 1;
+            }
+            next = end = 0;
+            Point head = ray.getHead();
+            Point direction = ray.getDirection();
+            double tEnter = primitives.length == 0 ? Double.POSITIVE_INFINITY : enter(head, direction);
+            walking = tEnter <= maxDistance;
+            if (!walking)
+                return this;
+
+            double[] origin = {head.getX(), head.getY(), head.getZ()};
+            double[] dir = {direction.getX(), direction.getY(), direction.getZ()};
+            double[] min = {box.minX, box.minY, box.minZ};
+            for (int axis = 0; axis < 3; axis++) {
+                voxel[axis] = voxel(origin[axis] + dir[axis] * tEnter, axis);
+                if (dir[axis] > 0) {
+                    step[axis] = 1;
+                    tNext[axis] = (min[axis] + (voxel[axis] + 1) * voxelSize[axis] - origin[axis]) / dir[axis];
+                    tDelta[axis] = voxelSize[axis] / dir[axis];
+                } else if (dir[axis] < 0) {
+                    step[axis] = -1;
+                    tNext[axis] = (min[axis] + voxel[axis] * voxelSize[axis] - origin[axis]) / dir[axis];
+                    tDelta[axis] = -voxelSize[axis] / dir[axis];
+                } else {
+                    step[axis] = 0;
+                    tNext[axis] = Double.POSITIVE_INFINITY;
+                    tDelta[axis] = Double.POSITIVE_INFINITY;
+                }
+            }
+            int index = index(voxel[0], voxel[1], voxel[2]);
+            next = voxelStart[index];
+            end = voxelStart[index + 1];
+            return this;
+        }
+
+        /**
+         * hands out the next geometry the ray reaches
+         *
+         * @param maxDistance the maximum distance - voxels the ray enters farther away are skipped.
+         *                    the voxels are visited by distance, so an intersection inside the current voxel
+         *                    stops the walk (a geometry handed out in an earlier voxel keeps its intersection
+         *                    even if it lies in a later voxel)
+         * @return the index of the geometry ; -1 if the walk is over
+         */
+        int next(double maxDistance) {
+            while (true) {
+                while (next < end) {
+                    int primitive = voxelPrimitives[next++];
+                    if (stamps[primitive] != rayNumber) {
+                        stamps[primitive] = rayNumber;
+                        return primitive;
+                    }
+                }
+                if (!walking || !advance(maxDistance))
+                    return -1;
+            }
+        }
+
+        /**
+         * steps to the next voxel, on the axis with the nearest border
+         *
+         * @param maxDistance the maximum distance
+         * @return false if the walk passed the maximum distance or left the grid, true otherwise
+         */
+        private boolean advance(double maxDistance) {
+            int axis = tNext[0] < tNext[1] ? (tNext[0] < tNext[2] ? 0 : 2) : (tNext[1] < tNext[2] ? 1 : 2);
+            walking = tNext[axis] <= maxDistance;
+            if (!walking)
+                return false;
+            voxel[axis] += step[axis];
+            walking = voxel[axis] >= 0 && voxel[axis] < resolution[axis];
+            if (!walking)
+                return false;
+            tNext[axis] += tDelta[axis];
+            int index = index(voxel[0], voxel[1], voxel[2]);
+            next = voxelStart[index];
+            end = voxelStart[index + 1];
+            return true;
+        }
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = null;
+        for (Intersectable intersectable : unbounded)
+            intersections = addAll(intersections, intersectable.findGeoIntersections(ray, maxDistance));
+        Cursor cursor = cursors.get().start(ray, maxDistance);
+        for (int i = cursor.next(maxDistance); i >= 0; i = cursor.next(maxDistance))
+            intersections = addAll(intersections, primitives[i].findGeoIntersections(ray, maxDistance));
+        return intersections;
+    }
+
+    @Override
+    protected boolean intersectHelper(Ray ray, Hit hit) {
+        boolean found = false;
+        for (Intersectable intersectable : unbounded)
+            found |= intersectable.intersect(ray, hit);
+        //the cursor stops at the voxel of the closest intersection found so far
+        Cursor cursor = cursors.get().start(ray, hit.t);
+        for (int i = cursor.next(hit.t); i >= 0; i = cursor.next(hit.t))
+            found |= primitives[i].intersect(ray, hit);
+        return found;
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance) {
+        Double3 ktr = Double3.ONE;
+        for (Intersectable intersectable : unbounded) {
+            ktr = attenuate(ktr, intersectable.findTransparency(ray, maxDistance));
+            if (ktr == Double3.ZERO)
+                return Double3.ZERO;
+        }
+        Cursor cursor = cursors.get().start(ray, maxDistance);
+        for (int i = cursor.next(maxDistance); i >= 0; i = cursor.next(maxDistance)) {
+            ktr = attenuate(ktr, primitives[i].findTransparency(ray, maxDistance));
+            if (ktr == Double3.ZERO)//opaque geometry - the rest of the walk does not matter
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+}
@@ -0,0 +1,201 @@
+package lighting;
+
+import primitives.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * a spatial index of the light sources of a scene, that finds the lights which can light a point by more than
+ * an intensity threshold. every light with a position reaches a sphere around it (its influence radius),
+ * and the lights are kept in a uniform grid of cells over all the spheres, so a point only checks the lights
+ * of its cell. lights that reach every point (directional lights and lights without attenuation) are
+ * checked for every point
+ *
+ * @author Elad and Amitay
+ */
+public class LightIndex {
+    /**
+     * the largest amount of cells on each axis of the grid
+     */
+    private static final int MAX_CELLS = 32;
+
+    /**
+     * the lights that reach every point
+     */
+    private final List<LightSource> unbounded = new ArrayList<>();
+    /**
+     * the lights that reach a sphere around their position
+     */
+    private final LightSource[] bounded;
+    /**
+     * the centers and the squared radii of the spheres of the bounded lights - 4 numbers for every light
+     */
+    private final double[] spheres;
+    /**
+     * the indexes of the bounded lights whose sphere overlaps every cell, by cell
+     */
+    private final int[][] cells;
+    /**
+     * the lower corner of the grid
+     */
+    private final double minX, minY, minZ;
+    /**
+     * the length of the edge of a cell
+     */
+    private final double cellSize;
+    /**
+     * amount of cells on each axis
+     */
+    private final int nX, nY, nZ;
+    /**
+     * the list of the lights the index was built from, and its size at the time
+     */
+    private final List<LightSource> lights;
+    private final int size;
+    /**
+     * the list of lights returned to each thread, reused for all its points
+     */
+    private final ThreadLocal<List<LightSource>> buffers = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * builds the index
+     *
+     * @param lights    the light sources
+     * @param threshold the intensity below which a light does not light a point
+     */
+    public LightIndex(List<LightSource> lights, double threshold) {
+        this.lights = lights;
+        size = lights.size();
+        List<LightSource> bounded = new ArrayList<>();
+        List<Double> radii = new ArrayList<>();
+        for (LightSource light : lights) {
+            double radius = light.getInfluenceRadius(threshold);
+            if (Double.isInfinite(radius) || light.getPosition() == null)
+                unbounded.add(light);
+            else if (radius > 0) {//lights that never reach the threshold are left out
+                bounded.add(light);
+                radii.add(radius);
+            }
+        }
+
+        this.bounded = bounded.toArray(new LightSource[0]);
+        spheres = new double[4 * this.bounded.length];
+        double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        double radiusSum = 0;
+        for (int i = 0; i < this.bounded.length; i++) {
+            Point position = this.bounded[i].getPosition();
+            double radius = radii.get(i);
+            double[] center = {position.getX(), position.getY(), position.getZ()};
+            for (int axis = 0; axis < 3; axis++) {
+                spheres[4 * i + axis] = center[axis];
+                min[axis] = Math.min(min[axis], center[axis] - radius);
+                max[axis] = Math.max(max[axis], center[axis] + radius);
+            }
+            spheres[4 * i + 3] = radius * radius;
+            radiusSum += radius;
+        }
+
+        //cells about as large as the average sphere, as long as the grid is not too large
+        double extent = Math.max(max[0] - min[0], Math.max(max[1] - min[1], max[2] - min[2]));
+        double edge = this.bounded.length == 0 ? 1
+                : Math.max(radiusSum / this.bounded.length, extent / MAX_CELLS);
+        minX = min[0];
+        minY = min[1];
+        minZ = min[2];
+        cellSize = edge;
+        nX = cellsOn(max[0] - min[0]);
+        nY = cellsOn(max[1] - min[1]);
+        nZ = cellsOn(max[2] - min[2]);
+        cells = new int[nX * nY * nZ][];
+
+        //count the lights of every cell, then fill them
+        int[] counts = new int[cells.length];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < this.bounded.length; i++) {
+                double radius = radii.get(i);
+                int fromX = cell(spheres[4 * i] - radius - minX, nX), toX = cell(spheres[4 * i] + radius - minX, nX);
+                int fromY = cell(spheres[4 * i + 1] - radius - minY, nY), toY = cell(spheres[4 * i + 1] + radius - minY, nY);
+                int fromZ = cell(spheres[4 * i + 2] - radius - minZ, nZ), toZ = cell(spheres[4 * i + 2] + radius - minZ, nZ);
+                for (int x = fromX; x <= toX; x++)
+                    for (int y = fromY; y <= toY; y++)
+                        for (int z = fromZ; z <= toZ; z++) {
+                            int cell = (x * nY + y) * nZ + z;
+                            if (pass == 0)
+                                counts[cell]++;
+                            else
+                                cells[cell][cells[cell].length - counts[cell]--] = i;
+                        }
+            }
+            if (pass == 0)
+                for (int cell = 0; cell < cells.length; cell++)
+                    cells[cell] = new int[counts[cell]];
+        }
+    }
+
+    /**
+     * returns the amount of cells on an axis of the grid
+     *
+     * @param extent the extent of the grid on the axis
+     * @return the amount of cells
+     */
+    private int cellsOn(double extent) {
+        return extent > 0 ? Math.min(MAX_CELLS, (int) Math.ceil(extent / cellSize)) : 1;
+    }
+
+    /**
+     * returns the index of the cell of a coordinate on an axis of the grid
+     *
+     * @param offset the coordinate, relative to the lower corner of the grid
+     * @param n      the amount of cells on the axis
+     * @return the index of the cell, clamped to the grid
+     */
+    private int cell(double offset, int n) {
+        int cell = (int) (offset / cellSize);
+        return cell < 0 ? 0 : Math.min(cell, n - 1);
+    }
+
+    /**
+     * returns the lights that can light a point by more than the threshold of the index.
+     * every thread gets the same list for all its points, so it is valid only until the next call of the thread
+     *
+     * @param point the point
+     * @return the lights
+     */
+    public List<LightSource> getLights(Point point) {
+        List<LightSource> lights = buffers.get();
+        lights.clear();
+        lights.addAll(unbounded);
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        if (bounded.length == 0)
+            return lights;
+        //a point outside the grid falls in a cell on its edge, and is outside all the spheres of the cell
+        for (int i : cells[(cell(x - minX, nX) * nY + cell(y - minY, nY)) * nZ + cell(z - minZ, nZ)]) {
+            double dx = x - spheres[4 * i], dy = y - spheres[4 * i + 1], dz = z - spheres[4 * i + 2];
+            if (dx * dx + dy * dy + dz * dz < spheres[4 * i + 3])
+                lights.add(bounded[i]);
+        }
+        return lights;
+    }
+
+    /**
+     * returns the amount of lights the index was built from
+     *
+     * @return the amount of lights
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * checks whether the index was built from a list of lights - the same list, with the same amount of lights.
+     * lights replaced in the list or changed in place are not detected
+     *
+     * @param lights the list of lights
+     * @return true if the index was built from the list, false otherwise
+     */
+    public boolean isBuiltFrom(List<LightSource> lights) {
+        return this.lights == lights && size == lights.size();
+    }
+}
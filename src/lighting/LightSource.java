@@ -42,4 +42,14 @@ public interface LightSource {
      * @return the position of the light
      */
     public Point getPosition();
+
+    /**
+     * returns the distance from the position of the light beyond which its intensity is not above a threshold
+     * (in every color component). lights without a position reach every point
+     * @param threshold the intensity threshold
+     * @return the distance, infinite if the light reaches every point
+     */
+    default double getInfluenceRadius(double threshold) {
+        return Double.POSITIVE_INFINITY;
+    }
 }
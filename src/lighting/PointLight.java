@@ -68,6 +68,20 @@ public class PointLight extends Light implements LightSource{
         return point.distance(position);
     }
 
+    @Override
+    public double getInfluenceRadius(double threshold) {
+        double max = Math.max(intensity.getRed(), Math.max(intensity.getGreen(), intensity.getBlue()));
+        //the distance where kC + kL * d + kQ * d^2 reaches max / threshold
+        double attenuation = max / threshold;
+        if (attenuation <= kC)
+            return 0;
+        if (kQ > 0)
+            return (-kL + Math.sqrt(kL * kL + 4 * kQ * (attenuation - kC))) / (2 * kQ);
+        if (kL > 0)
+            return (attenuation - kC) / kL;
+        return Double.POSITIVE_INFINITY;
+    }
+
     @Override
     public double getRadius() {
         return radius;
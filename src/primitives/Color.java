@@ -65,6 +65,24 @@ public class Color {
       return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
    }
 
+   /**
+    * Getter for the red component (not limited to 255)
+    * @return red component
+    */
+   public double getRed() { return rgb.d1; }
+
+   /**
+    * Getter for the green component (not limited to 255)
+    * @return green component
+    */
+   public double getGreen() { return rgb.d2; }
+
+   /**
+    * Getter for the blue component (not limited to 255)
+    * @return blue component
+    */
+   public double getBlue() { return rgb.d3; }
+
    /**
     * Operation of adding this and one or more other colors (by component)
     * @param  colors one or more other colors to add
@@ -43,6 +43,30 @@ public class Double3 {
         this.d3 = value;
     }
 
+    /**
+     * Getter for the first number
+     * @return first number
+     */
+    public double getD1() {
+        return d1;
+    }
+
+    /**
+     * Getter for the second number
+     * @return second number
+     */
+    public double getD2() {
+        return d2;
+    }
+
+    /**
+     * Getter for the third number
+     * @return third number
+     */
+    public double getD3() {
+        return d3;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
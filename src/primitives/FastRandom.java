@@ -0,0 +1,97 @@
+package primitives;
+
+/**
+ * a fast random number generator for sampling (the SplitMix64 generator that {@link java.util.SplittableRandom}
+ * is based on). every thread has its own generator, so render threads do not contend on a shared seed like
+ * {@link Math#random()} does, and the generator can be seeded again for every pixel, so a render gives the same
+ * image no matter which thread rendered which pixel
+ *
+ * @author Elad and Amitay
+ */
+public final class FastRandom {
+    /**
+     * the step between the states of the generator (the odd number closest to 2^64 divided by the golden ratio)
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    /**
+     * the generators of the threads
+     */
+    private static final ThreadLocal<FastRandom> CURRENT = ThreadLocal.withInitial(
+            () -> new FastRandom(System.nanoTime() ^ Thread.currentThread().threadId() * GOLDEN_GAMMA));
+
+    /**
+     * the state of the generator
+     */
+    private long state;
+
+    /**
+     * constructor
+     *
+     * @param seed the seed
+     */
+    public FastRandom(long seed) {
+        state = seed;
+    }
+
+    /**
+     * returns the generator of the current thread
+     *
+     * @return the generator
+     */
+    public static FastRandom current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * seeds the generator again
+     *
+     * @param seed the seed
+     * @return the generator itself
+     */
+    public FastRandom setSeed(long seed) {
+        state = seed;
+        return this;
+    }
+
+    /**
+     * returns the next random long
+     *
+     * @return the number
+     */
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * returns the next random double between 0 (included) and 1 (excluded)
+     *
+     * @return the number
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1p-53;
+    }
+
+    /**
+     * returns the next random int between 0 (included) and a bound (excluded)
+     *
+     * @param bound the bound, must be positive
+     * @return the number
+     */
+    public int nextInt(int bound) {
+        //the high bits of the product are uniform enough for the small bounds of sampling
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * mixes the bits of a number so that close numbers give unrelated results (the finalizer of SplitMix64).
+     * used for seeds made of indexes, like the seed of a pixel
+     *
+     * @param value the number
+     * @return the mixed number
+     */
+    public static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
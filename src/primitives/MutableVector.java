@@ -0,0 +1,196 @@
+package primitives;
+
+/**
+ * this class represents a mutable triad of coordinates (a vector or a point) for the inner loops of the renderer.
+ * unlike {@link Vector} and {@link Point}, every operation changes the object itself and returns it,
+ * so a calculation does not allocate an object for every step, and a zero vector is allowed
+ *
+ * @author Elad and Amitay
+ */
+public final class MutableVector {
+    /**
+     * the coordinates
+     */
+    public double x, y, z;
+
+    /**
+     * constructor of the zero vector
+     */
+    public MutableVector() {
+    }
+
+    /**
+     * constructor that gets the coordinates
+     *
+     * @param x,y,z the coordinates
+     */
+    public MutableVector(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * constructor that copies the coordinates of a point (or a vector)
+     *
+     * @param point the point
+     */
+    public MutableVector(Point point) {
+        this(point.xyz.d1, point.xyz.d2, point.xyz.d3);
+    }
+
+    /**
+     * copy constructor
+     *
+     * @param other the copied vector
+     */
+    public MutableVector(MutableVector other) {
+        this(other.x, other.y, other.z);
+    }
+
+    /**
+     * sets the coordinates
+     *
+     * @param x,y,z the coordinates
+     * @return this vector
+     */
+    public MutableVector set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * sets the coordinates to those of a point (or a vector)
+     *
+     * @param point the point
+     * @return this vector
+     */
+    public MutableVector set(Point point) {
+        return set(point.xyz.d1, point.xyz.d2, point.xyz.d3);
+    }
+
+    /**
+     * adds a point (or a vector) to this vector
+     *
+     * @param point the point
+     * @return this vector
+     */
+    public MutableVector add(Point point) {
+        return set(x + point.xyz.d1, y + point.xyz.d2, z + point.xyz.d3);
+    }
+
+    /**
+     * adds a scaled vector to this vector
+     *
+     * @param vector the vector
+     * @param scalar the scalar the vector is multiplied by
+     * @return this vector
+     */
+    public MutableVector addScaled(Vector vector, double scalar) {
+        return set(x + vector.xyz.d1 * scalar, y + vector.xyz.d2 * scalar, z + vector.xyz.d3 * scalar);
+    }
+
+    /**
+     * subtracts a point (or a vector) from this vector
+     *
+     * @param point the point
+     * @return this vector
+     */
+    public MutableVector subtract(Point point) {
+        return set(x - point.xyz.d1, y - point.xyz.d2, z - point.xyz.d3);
+    }
+
+    /**
+     * multiplies this vector by a scalar
+     *
+     * @param scalar the scalar
+     * @return this vector
+     */
+    public MutableVector scale(double scalar) {
+        return set(x * scalar, y * scalar, z * scalar);
+    }
+
+    /**
+     * sets this vector to the cross product of itself with another vector
+     *
+     * @param other the other vector
+     * @return this vector
+     */
+    public MutableVector crossProduct(MutableVector other) {
+        return set(y * other.z - z * other.y, z * other.x - x * other.z, x * other.y - y * other.x);
+    }
+
+    /**
+     * returns the dot product of this vector with a vector
+     *
+     * @param vector the vector
+     * @return the dot product
+     */
+    public double dotProduct(Vector vector) {
+        return x * vector.xyz.d1 + y * vector.xyz.d2 + z * vector.xyz.d3;
+    }
+
+    /**
+     * returns the dot product of this vector with another vector
+     *
+     * @param other the other vector
+     * @return the dot product
+     */
+    public double dotProduct(MutableVector other) {
+        return x * other.x + y * other.y + z * other.z;
+    }
+
+    /**
+     * returns the length of the vector squared
+     *
+     * @return length of the vector squared
+     */
+    public double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * returns the length of the vector
+     *
+     * @return length of the vector
+     */
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    /**
+     * divides this vector by its length
+     *
+     * @return this vector
+     */
+    public MutableVector normalize() {
+        double length = length();
+        return set(x / length, y / length, z / length);
+    }
+
+    /**
+     * creates an immutable point with the coordinates of this vector
+     *
+     * @return the point
+     */
+    public Point toPoint() {
+        return new Point(x, y, z);
+    }
+
+    /**
+     * creates an immutable vector with the coordinates of this vector
+     *
+     * @return the vector
+     * @throws IllegalArgumentException if this is the zero vector
+     */
+    public Vector toVector() {
+        return new Vector(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "->(" + x + "," + y + "," + z + ")";
+    }
+}
@@ -0,0 +1,250 @@
+package primitives;
+
+import static primitives.Util.isZero;
+
+/**
+ * this class represents an affine transform of the space (a linear transform followed by a translation)
+ * together with its inverse. transforms are immutable - combining them creates a new transform
+ *
+ * @author Elad and Amitay
+ */
+public final class Transform {
+    /**
+     * the transform that does not change anything
+     */
+    public static final Transform IDENTITY = new Transform(
+            new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0},
+            new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0});
+
+    /**
+     * the rows of the matrix of the transform - four numbers for each row, the last one is the translation
+     */
+    private final double[] matrix;
+    /**
+     * the rows of the matrix of the inverse transform, in the same layout
+     */
+    private final double[] inverse;
+
+    /**
+     * constructor that gets the matrices of the transform and of its inverse
+     *
+     * @param matrix  the matrix of the transform
+     * @param inverse the matrix of the inverse transform
+     */
+    private Transform(double[] matrix, double[] inverse) {
+        this.matrix = matrix;
+        this.inverse = inverse;
+    }
+
+    /**
+     * creates a transform from its matrix
+     *
+     * @param matrix the three rows of the matrix - four numbers for each row, the last one is the translation
+     * @return the transform
+     * @throws IllegalArgumentException if the matrix is not 3x4 or the transform cannot be inverted
+     */
+    public static Transform of(double... matrix) {
+        if (matrix.length != 12)
+            throw new IllegalArgumentException("the matrix of a transform must have 3 rows of 4 numbers");
+        double[] m = matrix.clone();
+        //the inverse of the linear part by cofactors
+        double c00 = m[5] * m[10] - m[6] * m[9], c01 = m[6] * m[8] - m[4] * m[10], c02 = m[4] * m[9] - m[5] * m[8];
+        double det = m[0] * c00 + m[1] * c01 + m[2] * c02;
+        if (isZero(det))
+            throw new IllegalArgumentException("the transform cannot be inverted");
+        double[] inv = new double[12];
+        inv[0] = c00 / det;
+        inv[1] = (m[2] * m[9] - m[1] * m[10]) / det;
+        inv[2] = (m[1] * m[6] - m[2] * m[5]) / det;
+        inv[4] = c01 / det;
+        inv[5] = (m[0] * m[10] - m[2] * m[8]) / det;
+        inv[6] = (m[2] * m[4] - m[0] * m[6]) / det;
+        inv[8] = c02 / det;
+        inv[9] = (m[1] * m[8] - m[0] * m[9]) / det;
+        inv[10] = (m[0] * m[5] - m[1] * m[4]) / det;
+        //the translation of the inverse moves the translated origin back
+        for (int row = 0; row < 12; row += 4)
+            inv[row + 3] = -(inv[row] * m[3] + inv[row + 1] * m[7] + inv[row + 2] * m[11]);
+        return new Transform(m, inv);
+    }
+
+    /**
+     * creates a translation
+     *
+     * @param vector the translation vector
+     * @return the transform
+     */
+    public static Transform translation(Vector vector) {
+        double x = vector.getX(), y = vector.getY(), z = vector.getZ();
+        return new Transform(
+                new double[]{1, 0, 0, x, 0, 1, 0, y, 0, 0, 1, z},
+                new double[]{1, 0, 0, -x, 0, 1, 0, -y, 0, 0, 1, -z});
+    }
+
+    /**
+     * creates a uniform scaling around the origin
+     *
+     * @param scale the scale factor
+     * @return the transform
+     * @throws IllegalArgumentException if the scale factor is zero
+     */
+    public static Transform scaling(double scale) {
+        return scaling(scale, scale, scale);
+    }
+
+    /**
+     * creates a scaling around the origin with a factor for each axis
+     *
+     * @param x,y,z the scale factors
+     * @return the transform
+     * @throws IllegalArgumentException if one of the scale factors is zero
+     */
+    public static Transform scaling(double x, double y, double z) {
+        if (isZero(x) || isZero(y) || isZero(z))
+            throw new IllegalArgumentException("the scale factors must not be zero");
+        return new Transform(
+                new double[]{x, 0, 0, 0, 0, y, 0, 0, 0, 0, z, 0},
+                new double[]{1 / x, 0, 0, 0, 0, 1 / y, 0, 0, 0, 0, 1 / z, 0});
+    }
+
+    /**
+     * creates a rotation around an axis through the origin
+     *
+     * @param axis  the axis
+     * @param angle the angle in degrees, counterclockwise when looking against the axis
+     * @return the transform
+     */
+    public static Transform rotation(Vector axis, double angle) {
+        Vector a = axis.normalize();
+        double x = a.getX(), y = a.getY(), z = a.getZ();
+        double rad = Math.toRadians(angle);
+        double cos = Math.cos(rad), sin = Math.sin(rad), c = 1 - cos;
+        double[] m = {
+                cos + x * x * c, x * y * c - z * sin, x * z * c + y * sin, 0,
+                y * x * c + z * sin, cos + y * y * c, y * z * c - x * sin, 0,
+                z * x * c - y * sin, z * y * c + x * sin, cos + z * z * c, 0};
+        //the inverse of a rotation is its transpose
+        double[] inv = {m[0], m[4], m[8], 0, m[1], m[5], m[9], 0, m[2], m[6], m[10], 0};
+        return new Transform(m, inv);
+    }
+
+    /**
+     * combines this transform with a transform that is applied after it
+     *
+     * @param next the transform applied after this one
+     * @return the combined transform
+     */
+    public Transform then(Transform next) {
+        return new Transform(multiply(next.matrix, matrix), multiply(inverse, next.inverse));
+    }
+
+    /**
+     * returns the inverse transform
+     *
+     * @return the inverse transform
+     */
+    public Transform inverse() {
+        return new Transform(inverse, matrix);
+    }
+
+    /**
+     * multiplies two affine matrices
+     *
+     * @param a,b the matrices
+     * @return the matrix of applying b and then a
+     */
+    private static double[] multiply(double[] a, double[] b) {
+        double[] result = new double[12];
+        for (int row = 0; row < 12; row += 4) {
+            for (int column = 0; column < 4; column++)
+                result[row + column] = a[row] * b[column] + a[row + 1] * b[4 + column] + a[row + 2] * b[8 + column];
+            result[row + 3] += a[row + 3];
+        }
+        return result;
+    }
+
+    /**
+     * transforms a point
+     *
+     * @param point the point
+     * @return the transformed point
+     */
+    public Point transformPoint(Point point) {
+        return apply(matrix, point);
+    }
+
+    /**
+     * transforms a point by the inverse transform
+     *
+     * @param point the point
+     * @return the point the transform moves to the given point
+     */
+    public Point inversePoint(Point point) {
+        return apply(inverse, point);
+    }
+
+    /**
+     * transforms a vector - the translation does not affect it and its length may change
+     *
+     * @param vector the vector
+     * @return the transformed vector
+     */
+    public Vector transformVector(Vector vector) {
+        return applyLinear(matrix, vector);
+    }
+
+    /**
+     * transforms a vector by the inverse transform - the translation does not affect it and its length may change
+     *
+     * @param vector the vector
+     * @return the vector the transform moves to the given vector
+     */
+    public Vector inverseVector(Vector vector) {
+        return applyLinear(inverse, vector);
+    }
+
+    /**
+     * transforms a normal of a surface, so it stays orthogonal to the transformed surface
+     *
+     * @param normal the normal
+     * @return the transformed normal, as a unit vector
+     */
+    public Vector transformNormal(Vector normal) {
+        //normals are transformed by the transpose of the inverse matrix
+        double x = normal.xyz.d1, y = normal.xyz.d2, z = normal.xyz.d3;
+        return new Vector(
+                inverse[0] * x + inverse[4] * y + inverse[8] * z,
+                inverse[1] * x + inverse[5] * y + inverse[9] * z,
+                inverse[2] * x + inverse[6] * y + inverse[10] * z).normalize();
+    }
+
+    /**
+     * applies an affine matrix to a point
+     *
+     * @param m     the matrix
+     * @param point the point
+     * @return the result
+     */
+    private static Point apply(double[] m, Point point) {
+        double x = point.xyz.d1, y = point.xyz.d2, z = point.xyz.d3;
+        return new Point(
+                m[0] * x + m[1] * y + m[2] * z + m[3],
+                m[4] * x + m[5] * y + m[6] * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11]);
+    }
+
+    /**
+     * applies the linear part of an affine matrix to a vector
+     *
+     * @param m      the matrix
+     * @param vector the vector
+     * @return the result
+     */
+    private static Vector applyLinear(double[] m, Vector vector) {
+        double x = vector.xyz.d1, y = vector.xyz.d2, z = vector.xyz.d3;
+        return new Vector(
+                m[0] * x + m[1] * y + m[2] * z,
+                m[4] * x + m[5] * y + m[6] * z,
+                m[8] * x + m[9] * y + m[10] * z);
+    }
+}
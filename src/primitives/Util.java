@@ -68,14 +68,14 @@ public final class Util {
     }
 
     /**
-     * Provide a real random number in range between min and max
+     * Provide a real random number in range between min and max, from the random generator of the current thread
      *
      * @param min value (included)
      * @param max value (excluded)
      * @return the random value
      */
     public static double random(double min, double max) {
-        return Math.random() * (max - min) + min;
+        return FastRandom.current().nextDouble() * (max - min) + min;
     }
 
 }
@@ -0,0 +1,93 @@
+package renderer;
+
+import primitives.FastRandom;
+
+/**
+ * an alias table (Vose's method) for choosing indexes at random in proportion to weights in constant time.
+ * every index has a column of height 1 split between itself and one alias, so a sample takes a random
+ * column and a random height
+ *
+ * @author Elad and Amitay
+ */
+class AliasTable {
+    /**
+     * the part of every column that belongs to its own index
+     */
+    private final double[] own;
+    /**
+     * the index that owns the rest of every column
+     */
+    private final int[] alias;
+    /**
+     * the probability of every index
+     */
+    private final double[] probabilities;
+
+    /**
+     * builds the table
+     *
+     * @param weights the weights of the indexes, not negative and not all 0
+     * @throws IllegalArgumentException if all the weights are 0
+     */
+    AliasTable(double[] weights) {
+        int n = weights.length;
+        double sum = 0;
+        for (double weight : weights)
+            sum += weight;
+        if (!(sum > 0))
+            throw new IllegalArgumentException("at least one weight must be positive");
+
+        own = new double[n];
+        alias = new int[n];
+        probabilities = new double[n];
+        //the indexes of the columns lower and higher than 1, as two stacks in the same array
+        int[] work = new int[n];
+        int small = 0, large = n;
+        double[] heights = new double[n];
+        for (int i = 0; i < n; i++) {
+            probabilities[i] = weights[i] / sum;
+            heights[i] = probabilities[i] * n;
+            if (heights[i] < 1)
+                work[small++] = i;
+            else
+                work[--large] = i;
+        }
+        //fill every low column with a part of a high one
+        while (small > 0 && large < n) {
+            int low = work[--small], high = work[large++];
+            own[low] = heights[low];
+            alias[low] = high;
+            heights[high] -= 1 - heights[low];
+            if (heights[high] < 1)
+                work[small++] = high;
+            else
+                work[--large] = high;
+        }
+        //the columns left are full up to rounding errors
+        while (small > 0)
+            own[work[--small]] = 1;
+        while (large < n)
+            own[work[large++]] = 1;
+    }
+
+    /**
+     * chooses a random index
+     *
+     * @param random the random generator
+     * @return the index
+     */
+    int sample(FastRandom random) {
+        int column = random.nextInt(own.length);
+        return random.nextDouble() < own[column] ? column : alias[column];
+    }
+
+    /**
+     * returns the probability an index is chosen with
+     *
+     * @param index the index
+     * @return the probability
+     */
+    double getProbability(int index) {
+        return probabilities[index];
+    }
+}
@@ -1,7 +1,8 @@
 package renderer;
 
+import primitives.FastRandom;
+import primitives.MutableVector;
 import primitives.Point;
-import primitives.Util;
 import primitives.Vector;
 
 import java.util.ArrayList;
@@ -36,9 +37,13 @@ public class Blackboard {
      */
     private boolean circle = false;
     /**
-     * boolean variable determining if the blackboard is using the grid method
+     * boolean variable determining if the blackboard is using the grid method (otherwise its jittered)
      */
     private boolean grid = false;
+    /**
+     * the way the samples are spread on the blackboard when not using the grid method
+     */
+    private SamplePattern.Sampling sampling = SamplePattern.Sampling.JITTERED;
     /**
      * simple constructor
      * @param center - the center of the blackBoard
@@ -53,73 +58,59 @@ public class Blackboard {
     }
 
     /**
-     * returns the points on the blackBoard jittered way
-     * @param amountOfSamples the amount of samples
-     * @return the points
+     * returns the sample pattern of the blackboard - a grid or a randomly chosen rotated copy of a pattern
+     * @param amountOfSamples the amount of samples on each edge
+     * @return the pattern
      */
-    private List<Point> getPointsSquare(int amountOfSamples) {
-        if(grid)
-            return getPointsSquareGrid(amountOfSamples);
-        double subPixelSize = size / amountOfSamples;
-        double y, x;
-        Point Pij;
-        List<Point> list = new ArrayList<>();
-        for (int i = 0; i < amountOfSamples; i++)
-            for (int j = 0; j < amountOfSamples; j++) {
-                y = (-(i - (amountOfSamples - 1.0) / 2.0) * subPixelSize) + (Math.random() - 0.5) * subPixelSize;
-                x = ((j - (amountOfSamples - 1.0) / 2.0) * subPixelSize) + (Math.random() - 0.5) * subPixelSize;
-                //Pij - random point in the sub-pixel i,j
-                if (!Util.isZero(x) && !Util.isZero(y))
-                    Pij = center.add(Vright.scale(x).add(Vup.scale(y)));
-                else if (!Util.isZero(x))
-                    Pij = center.add(Vright.scale(x));
-                else if (!Util.isZero(y))
-                    Pij = center.add(Vup.scale(y));
-                else
-                    Pij = center;
-
-                list.add(Pij);
-            }
-        return list;
+    public SamplePattern getPattern(int amountOfSamples) {
+        if (grid)
+            return SamplePattern.grid(amountOfSamples);
+        int rotation = FastRandom.current().nextInt(SamplePattern.ROTATIONS);
+        return circle ? SamplePattern.disk(sampling, amountOfSamples, rotation)
+                : SamplePattern.square(sampling, amountOfSamples, rotation);
     }
 
-    public List<Point> getPointsSquareGrid(int amountOfSamples) {
-        double subPixelSize = size / amountOfSamples;
-        double y, x;
-        Point Pij;
-        List<Point> list = new ArrayList<>();
-        for (int i = 0; i < amountOfSamples; i++)
-            for (int j = 0; j < amountOfSamples; j++) {
-                y = (-(i - (amountOfSamples - 1.0) / 2.0) * subPixelSize);
-                x = ((j - (amountOfSamples - 1.0) / 2.0) * subPixelSize);
-                //Pij - center point in the sub-pixel i,j
-                if (!Util.isZero(x) && !Util.isZero(y))
-                    Pij = center.add(Vright.scale(x).add(Vup.scale(y)));
-                else if (!Util.isZero(x))
-                    Pij = center.add(Vright.scale(x));
-                else if (!Util.isZero(y))
-                    Pij = center.add(Vup.scale(y));
-                else
-                    Pij = center;
-
-                list.add(Pij);
-            }
-        return list;
+    /**
+     * returns the point on the blackboard of a sample of a pattern
+     * @param pattern the pattern
+     * @param index the index of the sample
+     * @return the point
+     */
+    public Point getPoint(SamplePattern pattern, int index) {
+        return new MutableVector(center)
+                .addScaled(Vright, pattern.getX(index) * size)
+                .addScaled(Vup, pattern.getY(index) * size)
+                .toPoint();
     }
 
+    /**
+     * returns the center points of the cells of a grid on the blackboard
+     * @param amountOfSamples the amount of samples on each edge
+     * @return the points
+     */
+    public List<Point> getPointsSquareGrid(int amountOfSamples) {
+        return getPoints(SamplePattern.grid(amountOfSamples));
+    }
 
+    /**
+     * returns the points on the blackboard (the centers of the cells of a grid in grid mode,
+     * a pattern of the blackboard's sampling otherwise)
+     * @param amountOfSamples the amount of samples on each edge
+     * @return the points
+     */
     public List<Point> getPoints(int amountOfSamples) {
-        if (!circle)
-            return getPointsSquare(amountOfSamples);
-
-        List<Point> listSquare = getPointsSquare((int)(amountOfSamples * 1.27324));
-
-        List<Point> list  = new ArrayList<>();
-        double radiusSquared = (size/2) * (size/2);
-        for (Point point : listSquare)
-            if(point.distanceSquared(center) < radiusSquared)
-                list.add(point);
+        return getPoints(getPattern(amountOfSamples));
+    }
 
+    /**
+     * returns the points on the blackboard of all the samples of a pattern
+     * @param pattern the pattern
+     * @return the points
+     */
+    private List<Point> getPoints(SamplePattern pattern) {
+        List<Point> list = new ArrayList<>(pattern.size());
+        for (int i = 0; i < pattern.size(); i++)
+            list.add(getPoint(pattern, i));
         return list;
     }
 
@@ -128,6 +119,16 @@ public class Blackboard {
         return this;
     }
 
+    /**
+     * sets the way the samples are spread on the blackboard
+     * @param sampling the sampling
+     * @return the blackboard
+     */
+    public Blackboard setSampling(SamplePattern.Sampling sampling) {
+        this.sampling = sampling;
+        return this;
+    }
+
     public Blackboard grid() {
         this.grid = true;
     return this;
@@ -2,10 +2,12 @@ package renderer;
 
 import primitives.*;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.lang.Math;
 
 /**
@@ -14,6 +16,27 @@ import java.lang.Math;
  * @author Elad and Amitay
  */
 public class Camera implements Cloneable {
+    /**
+     * the ways the work of rendering an image is divided between threads
+     */
+    public enum RenderMode {
+        /**
+         * a fixed amount of threads, each takes the next tile when it is done with the previous one
+         */
+        THREADS,
+        /**
+         * a fork-join pool that splits the tiles of the image recursively, so idle threads steal work from
+         * busy ones. the pool is kept by the camera and reused by every rendering
+         */
+        FORK_JOIN,
+        /**
+         * a fixed amount of virtual threads (see {@link Builder#setCarrierParallelism(int)}), each takes the next
+         * tile when it is done with the previous one. virtual threads are final from java 21, which the project
+         * is built with
+         */
+        VIRTUAL_THREADS
+    }
+
     private Point p0;
     private Vector Vto;
     private Vector Vup;
@@ -63,11 +86,43 @@ public class Camera implements Cloneable {
      */
     private int threadsCount = 1;
 
+    /**
+     * the way the work is divided between the threads
+     */
+    private RenderMode renderMode = RenderMode.THREADS;
+
+    /**
+     * the pool used for rendering in {@link RenderMode#FORK_JOIN} mode, created on first use
+     */
+    private ForkJoinPool forkJoinPool;
+
+    /**
+     * the amount of virtual threads in {@link RenderMode#VIRTUAL_THREADS} mode
+     */
+    private int carrierParallelism = Runtime.getRuntime().availableProcessors();
+
     /**
      * Progress percentage printing interval
      */
     private long printInterval = 1;
 
+    /**
+     * the length of the edge of the square tiles the image is divided to between the threads
+     */
+    private int tileSize = 16;
+
+    /**
+     * boolean variable determining whether the pixels of a tile are rendered in Hilbert curve order or in
+     * scanline order
+     */
+    private boolean hilbertTileOrder = false;
+
+    /**
+     * the seed of the random samples. the random generator of the rendering thread is seeded again for every
+     * pixel by this seed and the pixel's index, so the image does not depend on the threads
+     */
+    private long seed = 0;
+
     private boolean adaptiveSuperSampling = true;
 
     /**
@@ -82,6 +137,10 @@ public class Camera implements Cloneable {
      * boolean variable determining whether using circle blackboard in antialiasing or not
      */
     private boolean antiAliasingCircle = false;
+    /**
+     * the way the samples are spread on a pixel (and on the lens) when not using adaptive super sampling
+     */
+    private SamplePattern.Sampling sampling = SamplePattern.Sampling.JITTERED;
 
     /**
      * distance from view plane to focal plane (depth of field)
@@ -92,13 +151,23 @@ public class Camera implements Cloneable {
     }
 
     /**
-     * Pixel manager for supporting:
+     * Tile manager for supporting:
      * <ul>
      * <li>multi-threading</li>
      * <li>debug print of progress percentage in Console window/tab</li>
      * <ul>
      */
-    private PixelManager pixelManager;
+    private TileManager tileManager;
+
+    /**
+     * the sample cache of every thread for adaptive super sampling, replaced by every rendering
+     */
+    private ThreadLocal<SampleCache> sampleCaches;
+
+    /**
+     * the average amount of rays traced for every pixel in the last rendering
+     */
+    private double raysPerPixel = 0;
 
 
     /**
@@ -110,31 +179,42 @@ public class Camera implements Cloneable {
     public Camera renderImage() {
         int nY = imageWriter.getNy();
         int nX = imageWriter.getNx();
-        pixelManager = new PixelManager(nY, nX, printInterval);
-        if (threadsCount == 0) {
-            if (amountOfSamples != 1 && antiAliasing)
-                for (int i = 0; i < nY; i += 1)
-                    for (int j = 0; j < nX; j += 1)
-                        castBeam(nX, nY, j, i, amountOfSamples);
-            else
-                for (int i = 0; i < nY; i += 1)
-                    for (int j = 0; j < nX; j += 1)
-                        castRay(nX, nY, j, i);
+        tileManager = new TileManager(nY, nX, tileSize, hilbertTileOrder, printInterval);
+        sampleCaches = ThreadLocal.withInitial(SampleCache::new);
+        rayTracer.resetTracedRays();
+        rayTracer.clearShadowCache();
+        TileManager.PixelTask cast = amountOfSamples != 1 && antiAliasing
+                ? (column, row) -> castBeam(nX, nY, column, row, amountOfSamples)
+                : (column, row) -> castRay(nX, nY, column, row);
+        TileManager.PixelTask task = (column, row) -> {
+            FastRandom.current().setSeed(FastRandom.mix(seed + (long) row * nX + column));
+            cast.render(column, row);
+        };
+        if (threadsCount == 0)
+            while (tileManager.renderNextTile(task)) ;
+        else if (renderMode == RenderMode.FORK_JOIN) {
+            if (forkJoinPool == null)
+                forkJoinPool = new ForkJoinPool(threadsCount);
+            forkJoinPool.invoke(new TilesAction(tileManager, task, 0, tileManager.getTotalTiles()));
+        } else if (renderMode == RenderMode.VIRTUAL_THREADS) {
+            // every virtual thread renders tiles in loop like the threads below, so the per-thread state of the
+            // ray tracer (hit records, traversal stacks, caches) lives through the whole rendering
+            var threads = new LinkedList<Thread>();
+            for (int i = 0; i < carrierParallelism; i++)
+                threads.add(Thread.ofVirtual().start(() -> {
+                    while (tileManager.renderNextTile(task)) ;
+                }));
+            try {
+                for (var thread : threads) thread.join();
+            } catch (InterruptedException ignore) {
+            }
         } else {//using multi-threading
 
             var threads = new LinkedList<Thread>(); // list of threads
-            while (threadsCount-- > 0) // add appropriate number of threads
-                threads.add(new Thread(() -> { // add a thread with its code
-                    PixelManager.Pixel pixel; // current pixel(row,col)
-                    // allocate pixel(row,col) in loop until there are no more pixels
-                    if (amountOfSamples != 1 && antiAliasing)
-                        while ((pixel = pixelManager.nextPixel()) != null)
-                            // cast ray through pixel (and color it – inside castRay)
-                            castBeam(nX, nY, pixel.col(), pixel.row(), amountOfSamples);
-                    else
-                        while ((pixel = pixelManager.nextPixel()) != null)
-                            // cast ray through pixel (and color it – inside castRay)
-                            castRay(nX, nY, pixel.col(), pixel.row());
+            for (int i = 0; i < threadsCount; i++) // add appropriate number of threads
+                // render tiles in loop until there are no more tiles
+                threads.add(new Thread(() -> {
+                    while (tileManager.renderNextTile(task)) ;
                 }));
             // start all the threads
             for (var thread : threads) thread.start();
@@ -144,9 +224,58 @@ public class Camera implements Cloneable {
             } catch (InterruptedException ignore) {
             }
         }
+        raysPerPixel = (double) rayTracer.getTracedRays() / ((long) nX * nY);
         return this;
     }
 
+    /**
+     * returns the average amount of rays traced for their closest intersection for every pixel in the last
+     * rendering - the primary rays and the reflected and refracted rays they spawned (without shadow rays)
+     *
+     * @return the average amount of rays
+     */
+    public double getRaysPerPixel() {
+        return raysPerPixel;
+    }
+
+
+    /**
+     * a fork-join task that renders a range of tiles, splitting it in half until a single tile is left.
+     * the tasks are never serialized, they only run on the fork-join pool
+     */
+    @SuppressWarnings("serial")
+    private static class TilesAction extends RecursiveAction {
+        private final TileManager tileManager;
+        private final TileManager.PixelTask task;
+        /**
+         * the range of the tiles (tiles are numbered row by row, so the range is a strip of the image)
+         */
+        private final int from, to;
+
+        /**
+         * constructor of a task of a range of tiles
+         *
+         * @param tileManager the tile manager of the image
+         * @param task        the work done for every pixel
+         * @param from,to     the range of the tiles
+         */
+        TilesAction(TileManager tileManager, TileManager.PixelTask task, int from, int to) {
+            this.tileManager = tileManager;
+            this.task = task;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1)
+                tileManager.renderTile(from, task);
+            else if (to - from > 1) {
+                int middle = (from + to) / 2;
+                invokeAll(new TilesAction(tileManager, task, from, middle), new TilesAction(tileManager, task, middle, to));
+            }
+        }
+    }
 
     /**
      * returns the builder of the camera
@@ -178,18 +307,15 @@ public class Camera implements Cloneable {
     private Point getCenter(int nX, int nY, int j, int i) {
         double y = -(i - (nY - 1.0) / 2.0) * (height / nY);
         double x = (j - (nX - 1.0) / 2.0) * (width / nX);
-        //Pij - center of pixel i,j
-        Point Pij;
-
-        if (!Util.isZero(x) && !Util.isZero(y))
-            Pij = center.add(Vright.scale(x).add(Vup.scale(y)));
-        else if (!Util.isZero(x))
-            Pij = center.add(Vright.scale(x));
-        else if (!Util.isZero(y))
-            Pij = center.add(Vup.scale(y));
-        else
-            Pij = center;
-        return Pij;
+        if (Util.isZero(x) && Util.isZero(y))
+            return center;
+        //Pij - center of pixel i,j, the offset from the center is calculated in place
+        MutableVector Pij = new MutableVector();
+        if (!Util.isZero(x))
+            Pij.addScaled(Vright, x);
+        if (!Util.isZero(y))
+            Pij.addScaled(Vup, y);
+        return Pij.add(center).toPoint();
     }
 
     /**
@@ -266,7 +392,6 @@ public class Camera implements Cloneable {
             color = rayTracer.traceRay(ray, amountOfSamples);
             imageWriter.writePixel(column, row, color);
         }
-        pixelManager.pixelDone();
     }
 
     /**
@@ -276,6 +401,8 @@ public class Camera implements Cloneable {
         camBlackBoard = new Blackboard(p0, Vup, Vright, width / imageWriter.getNx() * 8);
         if(adaptiveSuperSampling)
             camBlackBoard.grid();
+        camBlackBoard.setSampling(sampling);
+        FastRandom.current().setSeed(FastRandom.mix(seed - 1));
         camBlackBoardList = camBlackBoard.getPoints(amountOfSamples);
     }
 
@@ -294,45 +421,54 @@ public class Camera implements Cloneable {
     private void castBeam(int nX, int nY, int column, int row, int amountOfSamples) {
         if (width / nX != height / nY)
             throw new IllegalStateException("the pixels must be squared for anti-aliasing");
-        Blackboard blackboard = new Blackboard(getCenter(nX, nY, column, row), Vup, Vright, width / nX).setCircle(antiAliasingCircle);
 
         Color color = Color.BLACK;
 
         if (adaptiveSuperSampling) {
-            blackboard.grid();
-            List<Point> list = blackboard.getPoints(amountOfSamples);
-            ArrayList<ColoredPoint> coloredPoints= new ArrayList<ColoredPoint>();
-            for (int i =0 ; i< amountOfSamples*amountOfSamples;i++)
-                coloredPoints.add(new ColoredPoint(list.get(i),null));
-            color = adaptiveSuperSampling(coloredPoints, amountOfSamples, 0, 0, null);
+            color = adaptiveBeam(nX, nY, column, row);
         } else {
-            List<Point> list = blackboard.getPoints(amountOfSamples);
-            for (Point point : list) {
-                color = color.add(color(point,null));
+            Blackboard blackboard = new Blackboard(getCenter(nX, nY, column, row), Vup, Vright, width / nX);
+            //neighbouring pixels use different rotated copies of the pattern
+            int rotation = column * 73856093 ^ row * 19349663;
+            SamplePattern pattern = antiAliasingCircle ? SamplePattern.disk(sampling, amountOfSamples, rotation)
+                    : SamplePattern.square(sampling, amountOfSamples, rotation);
+            for (int i = 0; i < pattern.size(); i++) {
+                color = color.add(color(blackboard.getPoint(pattern, i), null));
             }
-            color = color.reduce(amountOfSamples * amountOfSamples);
+            color = color.reduce(pattern.size());
         }
 
 
         imageWriter.writePixel(column, row, color);
-        pixelManager.pixelDone();
     }
 
     /**
-     * returns the corners of the sub pixel which its upper left corner is the pixel (indexOnRow,IndexOnColumn) and its length is lengthOfRow
+     * calculates the color of a pixel by adaptive super sampling on a grid of samples whose corners are the
+     * corners of the pixel, so the samples on the edges of the pixel are shared with its neighbours.
+     * the colors of the samples are kept in the sample cache of the thread for the whole tile
      *
-     * @param lengthOfRow   the length of the square's edge
-     * @param indexOnRow    the index of the upper left corner on the row
-     * @param indexOnColumn the index of the upper left corner on the column
-     * @return the corners of the sub pixel which its upper left corner is the pixel (indexOnRow,IndexOnColumn) and its length is lengthOfRow
+     * @param nX,nY      the resolution
+     * @param column,row the pixel's index
+     * @return the color of the pixel
      */
-    private List<Integer> corners(int lengthOfRow, int indexOnRow, int indexOnColumn) {
-        // return List.of(0,lengthOfRow-1,lengthOfRow*(lengthOfRow-1),lengthOfRow*lengthOfRow-1);
-        return List.of(indexOnRow + indexOnColumn * amountOfSamples,
-                indexOnRow + lengthOfRow - 1 + indexOnColumn * amountOfSamples,
-                indexOnRow + (indexOnColumn + lengthOfRow - 1) * amountOfSamples,
-                indexOnRow + lengthOfRow - 1 + (indexOnColumn + lengthOfRow - 1) * amountOfSamples
-        );
+    private Color adaptiveBeam(int nX, int nY, int column, int row) {
+        int cells = amountOfSamples - 1;
+        SampleCache cache = sampleCaches.get()
+                .moveTo(column / tileSize * tileSize, row / tileSize * tileSize, tileSize * cells + 1);
+        int firstX = (column - cache.column) * cells, firstY = (row - cache.row) * cells;
+        Point pixelCenter = getCenter(nX, nY, column, row);
+        double cellSize = width / nX / cells;
+        long samplesSeed = FastRandom.mix(seed), stride = (long) nX * cells + 1;
+        return adaptiveSuperSampling(cache.colors, cache.stride, firstX, firstY, amountOfSamples, (x, y) -> {
+            //a sample on an edge is shared with the neighbour pixel, so it is seeded by its place in the image
+            //and not by the pixel that reached it first
+            long globalX = (long) column * cells + x - firstX, globalY = (long) row * cells + y - firstY;
+            FastRandom.current().setSeed(FastRandom.mix(samplesSeed + globalY * stride + globalX));
+            return color(new MutableVector(pixelCenter)
+                    .addScaled(Vright, (x - firstX - cells / 2.0) * cellSize)
+                    .addScaled(Vup, -(y - firstY - cells / 2.0) * cellSize)
+                    .toPoint(), null);
+        });
     }
 
     private Color color(Point point,Point focalPoint) {
@@ -352,41 +488,106 @@ public class Camera implements Cloneable {
         return rayTracer.traceRay(constructRay(point), amountOfSamples);
     }
 
-    private Color adaptiveSuperSampling(ArrayList<ColoredPoint> list, int lengthOfRow, int indexOnRow, int indexOnColumn, Point focalPoint) {
-        List<Integer> corners = corners(lengthOfRow, indexOnRow, indexOnColumn);
-        boolean sameColor = true;
-        for (int i = 0; i < corners.size(); i++) {
-            if (list.get(corners.get(i)).color == null)
-                list.set(corners.get(i),new ColoredPoint(list.get(corners.get(i)).point, color(list.get(corners.get(i)).point,focalPoint)));
-            if (i != 0)
-                if (!list.get(corners.get(i)).color.equals(list.get(corners.get(i-1)).color))
-                    sameColor = false;
-        }
-
-        if (sameColor)
-            return list.get(corners.get(0)).color;
-
-        Color color = Color.BLACK;
-        if (lengthOfRow > 2)
-            color = color.add(adaptiveSuperSampling(list, lengthOfRow / 2 + 1, indexOnRow, indexOnColumn, focalPoint)
-                    .add(adaptiveSuperSampling(list, lengthOfRow / 2 + 1, indexOnRow + lengthOfRow / 2, indexOnColumn, focalPoint))
-                    .add(adaptiveSuperSampling(list, lengthOfRow / 2 + 1, indexOnRow, indexOnColumn + lengthOfRow / 2, focalPoint))
-                    .add(adaptiveSuperSampling(list, lengthOfRow / 2 + 1, indexOnRow + lengthOfRow / 2, indexOnColumn + lengthOfRow / 2, focalPoint)));
-        else
-            for (int i = 0; i < 4; i++)
-                color = color.add(list.get(corners.get(i)).color);
+    /**
+     * calculates the color of a sample on a grid of samples
+     */
+    @FunctionalInterface
+    private interface Sampler {
+        /**
+         * calculates the color of a sample
+         *
+         * @param x,y the indexes of the sample on the grid
+         * @return the color
+         */
+        Color sample(int x, int y);
+    }
 
+    /**
+     * calculates the color of a square of samples on a grid recursively: if the colors of the corners of the square
+     * are the same it is the color of the square, otherwise the square is divided to 4 squares.
+     * every sample is calculated once and kept in the grid
+     *
+     * @param colors  the colors of the grid, row by row ; null for samples that were not calculated yet
+     * @param stride  amount of samples in a row of the grid
+     * @param x,y     the indexes of the upper left corner of the square
+     * @param length  amount of samples on the edge of the square
+     * @param sampler calculates the color of a sample that was not calculated yet
+     * @return the color of the square
+     */
+    private static Color adaptiveSuperSampling(Color[] colors, int stride, int x, int y, int length, Sampler sampler) {
+        int last = length - 1;
+        Color upperLeft = sample(colors, stride, x, y, sampler);
+        Color upperRight = sample(colors, stride, x + last, y, sampler);
+        Color lowerLeft = sample(colors, stride, x, y + last, sampler);
+        Color lowerRight = sample(colors, stride, x + last, y + last, sampler);
+
+        if (upperLeft.equals(upperRight) && upperRight.equals(lowerLeft) && lowerLeft.equals(lowerRight))
+            return upperLeft;
+
+        if (length <= 2)
+            return upperLeft.add(upperRight, lowerLeft, lowerRight).reduce(4);
+
+        //the squares share the middle row and column of samples
+        int half = last / 2;
+        return adaptiveSuperSampling(colors, stride, x, y, half + 1, sampler)
+                .add(adaptiveSuperSampling(colors, stride, x + half, y, length - half, sampler),
+                        adaptiveSuperSampling(colors, stride, x, y + half, half + 1, sampler),
+                        adaptiveSuperSampling(colors, stride, x + half, y + half, length - half, sampler))
+                .reduce(4);
+    }
 
-        return color.reduce(4);
+    /**
+     * returns the color of a sample on a grid, calculating it if it was not calculated yet
+     *
+     * @param colors  the colors of the grid
+     * @param stride  amount of samples in a row of the grid
+     * @param x,y     the indexes of the sample
+     * @param sampler calculates the color of the sample
+     * @return the color
+     */
+    private static Color sample(Color[] colors, int stride, int x, int y, Sampler sampler) {
+        int index = y * stride + x;
+        Color color = colors[index];
+        if (color == null)
+            colors[index] = color = sampler.sample(x, y);
+        return color;
     }
 
-    public class ColoredPoint {
-        public Point point;
-        public Color color;
+    /**
+     * the colors of the samples of adaptive super sampling in the tile a thread is rendering
+     */
+    private static final class SampleCache {
+        /**
+         * the pixel's index of the upper left pixel of the tile
+         */
+        int column = -1, row = -1;
+        /**
+         * amount of samples in a row of the grid
+         */
+        int stride;
+        /**
+         * the colors of the grid, row by row ; null for samples that were not calculated yet
+         */
+        Color[] colors;
 
-        public ColoredPoint(Point point, Color color) {
-            this.point = point;
-            this.color = color;
+        /**
+         * moves the cache to a tile, clearing it if it was used for another tile
+         *
+         * @param column,row the pixel's index of the upper left pixel of the tile
+         * @param stride     amount of samples in a row of the grid
+         * @return the cache
+         */
+        SampleCache moveTo(int column, int row, int stride) {
+            if (column == this.column && row == this.row && stride == this.stride)
+                return this;
+            if (colors == null || stride != this.stride)
+                colors = new Color[stride * stride];
+            else
+                Arrays.fill(colors, null);
+            this.column = column;
+            this.row = row;
+            this.stride = stride;
+            return this;
         }
     }
 
@@ -402,13 +603,9 @@ public class Camera implements Cloneable {
         Point focalPoint = point.add(Vto.scale(focalDistance));
         Color color = Color.BLACK;
 
-        if(adaptiveSuperSampling){
-            ArrayList<ColoredPoint> coloredPoints= new ArrayList<ColoredPoint>();
-            for (int i =0 ; i< amountOfSamples*amountOfSamples;i++)
-                coloredPoints.add(new ColoredPoint(camBlackBoardList.get(i),null));
-            color = adaptiveSuperSampling(coloredPoints, amountOfSamples, 0, 0, focalPoint );
-            return color;
-        }
+        if(adaptiveSuperSampling)
+            return adaptiveSuperSampling(new Color[amountOfSamples * amountOfSamples], amountOfSamples, 0, 0, amountOfSamples,
+                    (x, y) -> traceFromPoint(camBlackBoardList.get(y * amountOfSamples + x), focalPoint));
         for (Point point1 : camBlackBoardList) {
             color = color.add( traceFromPoint(point1, focalPoint));
         }
@@ -554,6 +751,32 @@ public class Camera implements Cloneable {
             return this;
         }
 
+        /**
+         * sets the way the work is divided between the threads
+         *
+         * @param renderMode the render mode
+         * @return the updated builder
+         */
+        public Builder setRenderMode(RenderMode renderMode) {
+            camera.renderMode = renderMode;
+            return this;
+        }
+
+        /**
+         * sets the amount of virtual threads in {@link RenderMode#VIRTUAL_THREADS} mode, which is the amount
+         * of tiles rendered at once. the default is the amount of available processors
+         *
+         * @param carrierParallelism the amount of virtual threads
+         * @return the updated builder
+         * @throws IllegalArgumentException if the amount is not positive
+         */
+        public Builder setCarrierParallelism(int carrierParallelism) {
+            if (carrierParallelism <= 0)
+                throw new IllegalArgumentException("carrier parallelism must be positive");
+            camera.carrierParallelism = carrierParallelism;
+            return this;
+        }
+
         /**
          * sets the progress percentage printing interval
          *
@@ -565,6 +788,42 @@ public class Camera implements Cloneable {
             return this;
         }
 
+        /**
+         * sets the length of the edge of the square tiles the image is divided to between the threads
+         *
+         * @param tileSize the length in pixels
+         * @return the updated builder
+         * @throws IllegalArgumentException if the length is not positive
+         */
+        public Builder setTileSize(int tileSize) {
+            if (tileSize <= 0)
+                throw new IllegalArgumentException("tile size must be positive");
+            camera.tileSize = tileSize;
+            return this;
+        }
+
+        /**
+         * renders the pixels of every tile along a Hilbert curve instead of row by row,
+         * used when the tile size is a power of 2
+         *
+         * @return the updated builder
+         */
+        public Builder hilbertTileOrder() {
+            camera.hilbertTileOrder = true;
+            return this;
+        }
+
+        /**
+         * sets the seed of the random samples - cameras with the same seed render the same image
+         *
+         * @param seed the seed
+         * @return the updated builder
+         */
+        public Builder setSeed(long seed) {
+            camera.seed = seed;
+            return this;
+        }
+
         /**
          * turns off adaptive super sampling
          *
@@ -590,6 +849,18 @@ public class Camera implements Cloneable {
             return this;
         }
 
+        /**
+         * sets the way the samples are spread on a pixel and on the lens when not using adaptive super sampling.
+         * low-discrepancy samplings reach the same noise with fewer samples than the default jittered sampling
+         *
+         * @param sampling the sampling
+         * @return the updated builder
+         */
+        public Builder setSampling(SamplePattern.Sampling sampling) {
+            camera.sampling = sampling;
+            return this;
+        }
+
         public Builder setFocalDistance(double focalDistance) {
             if (focalDistance < 0)
                 throw new IllegalArgumentException("focal plane can't be behind the view plane");
@@ -0,0 +1,159 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+import scene.Scene;
+
+/**
+ * a ray tracer that gives the same colors as {@link SimpleRayTracer} without recursion.
+ * the reflected and refracted rays wait in an explicit stack of (ray, attenuation, level) entries,
+ * and the colors are accumulated in rgb doubles scaled by the attenuation of every entry, so deep scenes of
+ * glass and mirrors do not grow the call stack and do not allocate a color for every level.
+ * the russian roulette of a ray is played only when its entry is popped, so the random numbers are drawn in the
+ * order of the recursion - the whole refracted subtree before the reflected ray.
+ * every thread reuses its own stack for all its rays
+ *
+ * @author Elad and Amitay
+ */
+public class IterativeRayTracer extends SimpleRayTracer {
+    /**
+     * the capacity of the stack - every entry adds at most 2 entries of a lower level,
+     * so the stack never holds more than one entry for every level and one more
+     */
+    private static final int STACK_SIZE = MAX_CALC_COLOR_LEVEL + 1;
+    /**
+     * the stack of each thread, reused for all the rays it traces
+     */
+    private static final ThreadLocal<Stack> STACKS = ThreadLocal.withInitial(Stack::new);
+
+    /**
+     * constructor gets scene and sets it
+     *
+     * @param scene the scene
+     */
+    public IterativeRayTracer(Scene scene) {
+        super(scene);
+    }
+
+    /**
+     * the reflected and refracted rays waiting to be traced
+     */
+    private static final class Stack {
+        /**
+         * the rays of the entries
+         */
+        final Ray[] rays = new Ray[STACK_SIZE];
+        /**
+         * the attenuation factors of the entries, before russian roulette - the rgb of every entry one after the other
+         */
+        final double[] k = new double[3 * STACK_SIZE];
+        /**
+         * the levels of the points the rays of the entries reach
+         */
+        final int[] levels = new int[STACK_SIZE];
+        /**
+         * amount of entries
+         */
+        int size = 0;
+
+        /**
+         * adds an entry
+         *
+         * @param ray      the reflected or refracted ray
+         * @param k1,k2,k3 the attenuation factor
+         * @param level    the level of the point the ray reaches
+         */
+        void push(Ray ray, double k1, double k2, double k3, int level) {
+            rays[size] = ray;
+            k[3 * size] = k1;
+            k[3 * size + 1] = k2;
+            k[3 * size + 2] = k3;
+            levels[size++] = level;
+        }
+    }
+
+    @Override
+    public Color traceRay(Ray ray, int amountOfSamples) {
+        GeoPoint closest = findClosestIntersection(ray);
+        if (closest == null)
+            return scene.background;
+
+        Color ambient = scene.ambientLight.getIntensity();
+        double[] rgb = {ambient.getRed(), ambient.getGreen(), ambient.getBlue()};
+        Stack stack = STACKS.get();
+        stack.size = 0;
+        calcPoint(stack, rgb, closest, ray, 1, 1, 1, MAX_CALC_COLOR_LEVEL, amountOfSamples);
+        while (stack.size > 0) {
+            int top = --stack.size;
+            Ray current = stack.rays[top];
+            double k1 = stack.k[3 * top], k2 = stack.k[3 * top + 1], k3 = stack.k[3 * top + 2];
+            int level = stack.levels[top];
+            stack.rays[top] = null;
+
+            double chance = survive(k1, k2, k3);
+            if (chance == 0)
+                continue;
+            k1 /= chance;
+            k2 /= chance;
+            k3 /= chance;
+            GeoPoint gp = findClosestIntersection(current);
+            if (gp == null)
+                add(rgb, scene.background, k1, k2, k3);
+            else
+                calcPoint(stack, rgb, gp, current, k1, k2, k3, level, amountOfSamples);
+        }
+        return new Color(rgb[0], rgb[1], rgb[2]);
+    }
+
+    /**
+     * adds the local effects of a point to the color, and pushes its reflected and refracted rays
+     *
+     * @param stack           the stack
+     * @param rgb             the accumulated color
+     * @param gp              the point
+     * @param ray             the ray that intersects the point
+     * @param k1,k2,k3        the attenuation factor of the point
+     * @param level           the level of the point
+     * @param amountOfSamples the amount of samples for super-sampling
+     */
+    private void calcPoint(Stack stack, double[] rgb, GeoPoint gp, Ray ray, double k1, double k2, double k3,
+                           int level, int amountOfSamples) {
+        add(rgb, calcLocalEffects(gp, ray, k1, k2, k3, amountOfSamples), k1, k2, k3);
+        if (level == 1)
+            return;
+        Vector n = gp.getNormal();
+        Material material = gp.geometry.getMaterial();
+        //the reflected ray is pushed first, so the refracted ray is traced first like in the recursion
+        pushGlobalEffect(stack, constructReflectedRay(gp, ray, n), material.kR, k1, k2, k3, level);
+        pushGlobalEffect(stack, constructRefractedRay(gp, ray, n), material.kT, k1, k2, k3, level);
+    }
+
+    /**
+     * pushes the entry of a reflected or refracted ray to the stack, unless its attenuation is too weak
+     *
+     * @param stack    the stack
+     * @param ray      the reflected or refracted ray
+     * @param kx       the attenuation factor of material
+     * @param k1,k2,k3 the attenuation factor of the point the ray leaves
+     * @param level    the level of the point the ray leaves
+     */
+    private static void pushGlobalEffect(Stack stack, Ray ray, Double3 kx, double k1, double k2, double k3, int level) {
+        double kk1 = kx.getD1() * k1, kk2 = kx.getD2() * k2, kk3 = kx.getD3() * k3;
+        if (kk1 < MIN_CALC_COLOR_K && kk2 < MIN_CALC_COLOR_K && kk3 < MIN_CALC_COLOR_K)
+            return;
+        stack.push(ray, kk1, kk2, kk3, level - 1);
+    }
+
+    /**
+     * adds a color scaled by an attenuation factor to an accumulated color
+     *
+     * @param rgb      the accumulated color
+     * @param color    the color
+     * @param k1,k2,k3 the attenuation factor
+     */
+    private static void add(double[] rgb, Color color, double k1, double k2, double k3) {
+        rgb[0] += color.getRed() * k1;
+        rgb[1] += color.getGreen() * k2;
+        rgb[2] += color.getBlue() * k3;
+    }
+}
@@ -1,15 +1,66 @@
 package renderer;
 
+import geometries.Intersectable;
+import lighting.LightIndex;
+import lighting.LightSource;
 import primitives.Color;
+import primitives.FastRandom;
+import primitives.Point;
 import primitives.Ray;
 import scene.Scene;
 
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * this class represents an abstract ray tracer
  * @author Elad and Amitay
  */
 public abstract class RayTracerBase {
     protected Scene scene;
+    /**
+     * the way the samples are spread on the area of a light source for soft shadows
+     */
+    protected SamplePattern.Sampling sampling = SamplePattern.Sampling.JITTERED;
+    /**
+     * true for casting a few probe shadow rays to an area light first, and the rest only if they disagree
+     */
+    protected boolean adaptiveSoftShadows = false;
+    /**
+     * the attenuation below which reflected and refracted rays are terminated by russian roulette,
+     * 0 if russian roulette is not used
+     */
+    protected double russianRoulette = 0;
+    /**
+     * the intensity below which a light does not light a point, 0 if the lights are not culled
+     */
+    protected double lightCulling = 0;
+    /**
+     * amount of lights chosen at random for every point, 0 for using all the lights
+     */
+    protected int lightSamples = 0;
+    /**
+     * the index of the lights of the scene for culling, built on first use
+     */
+    private volatile LightIndex lightIndex;
+    /**
+     * amount of rays traced for their closest intersection (not including shadow rays)
+     */
+    private final LongAdder tracedRays = new LongAdder();
+    /**
+     * true for testing the last occluder found between a point and a light first, before the whole scene
+     */
+    protected boolean shadowCache = false;
+    /**
+     * the last occluder found for every light, by thread. replaced when the cache is cleared
+     */
+    private volatile ThreadLocal<Map<LightSource, Intersectable>> occluders = ThreadLocal.withInitial(IdentityHashMap::new);
+    /**
+     * amount of shadow rays the cached occluder blocked, and amount it did not
+     */
+    private final LongAdder shadowCacheHits = new LongAdder(), shadowCacheMisses = new LongAdder();
 
     /**
      * constructor gets scene and sets it
@@ -19,6 +70,207 @@ public abstract class RayTracerBase {
         this.scene = scene;
     }
 
+    /**
+     * sets the way the samples are spread on the area of a light source for soft shadows
+     * @param sampling the sampling
+     * @return the ray tracer
+     */
+    public RayTracerBase setSampling(SamplePattern.Sampling sampling) {
+        this.sampling = sampling;
+        return this;
+    }
+
+    /**
+     * sets adaptive soft shadows - a few probe rays spread over the light are cast first, and the rest of the
+     * samples only in the penumbra, where the probes disagree. an occluder small enough to fall between all
+     * the probes is missed
+     * @param adaptiveSoftShadows true for adaptive soft shadows
+     * @return the ray tracer
+     */
+    public RayTracerBase setAdaptiveSoftShadows(boolean adaptiveSoftShadows) {
+        this.adaptiveSoftShadows = adaptiveSoftShadows;
+        return this;
+    }
+
+    /**
+     * sets russian roulette termination - a reflected or refracted ray whose attenuation is below the threshold
+     * is terminated randomly, and if it survives its color is scaled up by the chance of surviving, so the
+     * expected color stays the same while the amount of rays of weak branches drops
+     * @param threshold the attenuation below which rays are terminated randomly, 0 for no russian roulette
+     * @return the ray tracer
+     * @throws IllegalArgumentException if the threshold is not between 0 and 1
+     */
+    public RayTracerBase setRussianRoulette(double threshold) {
+        if (threshold < 0 || threshold > 1)
+            throw new IllegalArgumentException("russian roulette threshold must be between 0 and 1");
+        this.russianRoulette = threshold;
+        return this;
+    }
+
+    /**
+     * plays russian roulette for a reflected or refracted ray
+     * @param k1,k2,k3 the attenuation of the ray
+     * @return the chance the ray survived with (1 if russian roulette is not used or the attenuation is strong
+     * enough), or 0 if the ray is terminated
+     */
+    protected double survive(double k1, double k2, double k3) {
+        double max = Math.max(k1, Math.max(k2, k3));
+        if (max >= russianRoulette)
+            return 1;
+        double chance = max / russianRoulette;
+        return FastRandom.current().nextDouble() < chance ? chance : 0;
+    }
+
+    /**
+     * sets light culling - every point is lit only by the lights whose attenuated intensity at its distance
+     * is above the threshold (in some color component). the lights are found by a spatial index of the
+     * distances every light reaches, so scenes of many lights do not check all of them for every point
+     * @param threshold the intensity below which a light is ignored, 0 for no culling
+     * @return the ray tracer
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public RayTracerBase setLightCulling(double threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("light culling threshold must not be negative");
+        this.lightCulling = threshold;
+        lightIndex = null;
+        return this;
+    }
+
+    /**
+     * sets stochastic light selection - every point is lit by a few lights chosen at random, in proportion to
+     * their light on the point without shadows, and their effect is divided by the chance they were chosen with.
+     * the shadow rays of a point do not depend on the amount of lights, and the noise averages out over the
+     * samples of anti-aliasing
+     * @param lightSamples the amount of lights chosen for every point, 0 for using all the lights
+     * @return the ray tracer
+     * @throws IllegalArgumentException if the amount is negative
+     */
+    public RayTracerBase setLightSamples(int lightSamples) {
+        if (lightSamples < 0)
+            throw new IllegalArgumentException("amount of light samples must not be negative");
+        this.lightSamples = lightSamples;
+        return this;
+    }
+
+    /**
+     * sets the shadow cache - every render thread remembers the last opaque geometry that blocked a shadow ray
+     * to every light, and tests it before the whole scene. neighbouring points are usually blocked by the same
+     * geometry, so most shadow rays in the umbra end after a single intersection test. only opaque occluders are
+     * remembered, so the image is the same as without the cache
+     * @param shadowCache true for the shadow cache
+     * @return the ray tracer
+     */
+    public RayTracerBase setShadowCache(boolean shadowCache) {
+        this.shadowCache = shadowCache;
+        clearShadowCache();
+        return this;
+    }
+
+    /**
+     * returns the last occluder found by the current thread between a point and a light
+     * @param lightSource the light
+     * @return the occluder, null if there is none
+     */
+    protected Intersectable getOccluder(LightSource lightSource) {
+        return occluders.get().get(lightSource);
+    }
+
+    /**
+     * remembers the last occluder found by the current thread between a point and a light
+     * @param lightSource the light
+     * @param occluder    the occluder, null for forgetting the last one
+     */
+    protected void setOccluder(LightSource lightSource, Intersectable occluder) {
+        if (occluder == null)
+            occluders.get().remove(lightSource);
+        else
+            occluders.get().put(lightSource, occluder);
+    }
+
+    /**
+     * counts a shadow ray tested against the cached occluder
+     * @param hit true if the cached occluder blocked the ray
+     */
+    protected void countShadowCache(boolean hit) {
+        (hit ? shadowCacheHits : shadowCacheMisses).increment();
+    }
+
+    /**
+     * returns the amount of shadow rays the cached occluder blocked since the last reset
+     * @return the amount of rays
+     */
+    public long getShadowCacheHits() {
+        return shadowCacheHits.sum();
+    }
+
+    /**
+     * returns the amount of shadow rays the cached occluder did not block (or there was none) since the last reset
+     * @return the amount of rays
+     */
+    public long getShadowCacheMisses() {
+        return shadowCacheMisses.sum();
+    }
+
+    /**
+     * forgets the occluders of all the threads and resets the counters of the shadow cache.
+     * must be called when geometries are removed from the scene
+     */
+    public void clearShadowCache() {
+        occluders = ThreadLocal.withInitial(IdentityHashMap::new);
+        shadowCacheHits.reset();
+        shadowCacheMisses.reset();
+    }
+
+    /**
+     * returns the lights that can light a point - all the lights of the scene if the lights are not culled.
+     * the culled lights are valid only until the next call of the thread
+     * @param point the point
+     * @return the lights
+     */
+    protected List<LightSource> getLights(Point point) {
+        if (lightCulling == 0)
+            return scene.lights;
+        LightIndex index = lightIndex;
+        //the lights of the scene are added after the ray tracer is created, so the index is built on first use,
+        //and again when lights are added or removed or the list of the scene is replaced
+        if (index == null || !index.isBuiltFrom(scene.lights))
+            lightIndex = index = new LightIndex(scene.lights, lightCulling);
+        return index.getLights(point);
+    }
+
+    /**
+     * forgets the index of the lights for culling, so it is built again on next use.
+     * must be called when lights of the scene are replaced or changed (like their attenuation) -
+     * adding and removing lights is found on its own
+     */
+    public void rebuildLightIndex() {
+        lightIndex = null;
+    }
+
+    /**
+     * counts a ray traced for its closest intersection
+     */
+    protected void countRay() {
+        tracedRays.increment();
+    }
+
+    /**
+     * returns the amount of rays traced for their closest intersection (primary, reflected and refracted rays)
+     * since the last reset
+     * @return the amount of rays
+     */
+    public long getTracedRays() {
+        return tracedRays.sum();
+    }
+
+    /**
+     * resets the amount of traced rays
+     */
+    public void resetTracedRays() {
+        tracedRays.reset();
+    }
+
     /**
      * gets a ray and return the color of the intersection point with the ray
      * @param ray
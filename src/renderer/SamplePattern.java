@@ -0,0 +1,423 @@
+package renderer;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * represents a precomputed pattern of 2D sample offsets on a unit square or a unit disk (both centered at the
+ * origin with edge or diameter 1). a pattern is generated once for every amount of samples and mapped to a
+ * pixel or a light by scaling the offsets, instead of generating random points for every sample.
+ * every pattern has several rotated copies, so neighbouring pixels do not repeat the same structure.
+ * besides jittered patterns, low-discrepancy patterns (Halton, scrambled Sobol and blue noise) are available -
+ * their samples cover the area more evenly, so fewer samples give the same noise
+ *
+ * @author Elad and Amitay
+ */
+public final class SamplePattern {
+    /**
+     * amount of rotated copies of every pattern
+     */
+    public static final int ROTATIONS = 16;
+
+    /**
+     * the ways the samples of a pattern are spread on the unit square
+     */
+    public enum Sampling {
+        /**
+         * a random point in every cell of a square grid
+         */
+        JITTERED,
+        /**
+         * the Halton sequence in bases 2 and 3
+         */
+        HALTON,
+        /**
+         * the Sobol sequence, scrambled by a different random digital shift for every rotated copy
+         */
+        SOBOL,
+        /**
+         * a precomputed tile of blue noise - random points that keep away from each other
+         */
+        BLUE_NOISE
+    }
+
+    /**
+     * the kinds of patterns
+     */
+    private enum Kind {GRID, SQUARE, DISK}
+
+    /**
+     * the rotated copies of the patterns that were generated, by kind and amount of samples
+     */
+    private static final Map<Integer, SamplePattern[]> PATTERNS = new ConcurrentHashMap<>();
+
+    /**
+     * the least amount of samples on each edge of a pattern that has probe samples
+     */
+    private static final int MIN_PROBED_SAMPLES = 4;
+
+    /**
+     * the offsets - the coordinates of every sample one after the other
+     */
+    private final double[] offsets;
+    /**
+     * the indexes of the probe samples in ascending order
+     */
+    private final int[] probes;
+
+    /**
+     * constructor that gets the offsets
+     *
+     * @param offsets the coordinates of every sample one after the other
+     * @param probes  the indexes of the probe samples in ascending order
+     */
+    private SamplePattern(double[] offsets, int[] probes) {
+        this.offsets = offsets;
+        this.probes = probes;
+    }
+
+    /**
+     * returns the centers of the cells of a square grid on the unit square
+     *
+     * @param amountOfSamples amount of samples on each edge
+     * @return the pattern
+     */
+    public static SamplePattern grid(int amountOfSamples) {
+        return get(Kind.GRID, Sampling.JITTERED, amountOfSamples, 0);
+    }
+
+    /**
+     * returns a jittered pattern on the unit square - a random point in every cell of a square grid
+     *
+     * @param amountOfSamples amount of samples on each edge
+     * @param rotation        the index of the rotated copy, taken modulo {@link #ROTATIONS}
+     * @return the pattern
+     */
+    public static SamplePattern square(int amountOfSamples, int rotation) {
+        return square(Sampling.JITTERED, amountOfSamples, rotation);
+    }
+
+    /**
+     * returns a pattern on the unit square
+     *
+     * @param sampling        the way the samples are spread
+     * @param amountOfSamples square root of the amount of samples
+     * @param rotation        the index of the rotated copy, taken modulo {@link #ROTATIONS}
+     * @return the pattern
+     */
+    public static SamplePattern square(Sampling sampling, int amountOfSamples, int rotation) {
+        return get(Kind.SQUARE, sampling, amountOfSamples, rotation);
+    }
+
+    /**
+     * returns a jittered pattern on the unit disk - the jittered square pattern mapped to the disk
+     * without discarding samples
+     *
+     * @param amountOfSamples square root of the amount of samples
+     * @param rotation        the index of the rotated copy, taken modulo {@link #ROTATIONS}
+     * @return the pattern
+     */
+    public static SamplePattern disk(int amountOfSamples, int rotation) {
+        return disk(Sampling.JITTERED, amountOfSamples, rotation);
+    }
+
+    /**
+     * returns a pattern on the unit disk - the square pattern mapped to the disk without discarding samples
+     *
+     * @param sampling        the way the samples are spread
+     * @param amountOfSamples square root of the amount of samples
+     * @param rotation        the index of the rotated copy, taken modulo {@link #ROTATIONS}
+     * @return the pattern
+     */
+    public static SamplePattern disk(Sampling sampling, int amountOfSamples, int rotation) {
+        return get(Kind.DISK, sampling, amountOfSamples, rotation);
+    }
+
+    /**
+     * returns a rotated copy of a pattern, generating the copies of the pattern on first use
+     *
+     * @param kind            the kind of the pattern
+     * @param sampling        the way the samples are spread
+     * @param amountOfSamples square root of the amount of samples
+     * @param rotation        the index of the rotated copy
+     * @return the pattern
+     */
+    private static SamplePattern get(Kind kind, Sampling sampling, int amountOfSamples, int rotation) {
+        if (amountOfSamples <= 0)
+            throw new IllegalArgumentException("amount of samples must be positive");
+        int key = (amountOfSamples * Kind.values().length + kind.ordinal()) * Sampling.values().length + sampling.ordinal();
+        return PATTERNS.computeIfAbsent(key, k -> generate(kind, sampling, amountOfSamples))[Math.floorMod(rotation, ROTATIONS)];
+    }
+
+    /**
+     * generates the rotated copies of a pattern. the square patterns are moved by a different offset for
+     * every copy (wrapping around the edges) - Sobol patterns are scrambled instead, which keeps their
+     * structure - and the disks are rotated around their center
+     *
+     * @param kind            the kind of the pattern
+     * @param sampling        the way the samples are spread
+     * @param amountOfSamples square root of the amount of samples
+     * @return the copies
+     */
+    private static SamplePattern[] generate(Kind kind, Sampling sampling, int amountOfSamples) {
+        //the same seed gives the same patterns in every run
+        Random random = new Random(amountOfSamples);
+        int count = amountOfSamples * amountOfSamples;
+        double[] base = kind == Kind.GRID ? grid(amountOfSamples, false, random) : switch (sampling) {
+            case JITTERED -> grid(amountOfSamples, true, random);
+            case HALTON -> halton(count);
+            case SOBOL -> sobol(count, 0, 0);
+            case BLUE_NOISE -> blueNoise(count, random);
+        };
+
+        int[] probes = probes(base, amountOfSamples);
+        SamplePattern[] patterns = new SamplePattern[ROTATIONS];
+        if (kind == Kind.GRID) {//a grid has no rotated copies
+            Arrays.fill(patterns, new SamplePattern(base, probes));
+            return patterns;
+        }
+        for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+            double[] offsets = base.clone();
+            if (kind == Kind.SQUARE && rotation > 0) {
+                if (sampling == Sampling.SOBOL)
+                    offsets = sobol(count, random.nextInt(), random.nextInt());
+                else {
+                    //irrational steps spread the offsets of the copies evenly
+                    double shiftX = rotation * 0.6180339887498949 % 1, shiftY = rotation * 0.7548776662466927 % 1;
+                    for (int i = 0; i < offsets.length; i += 2) {
+                        offsets[i] = wrap(offsets[i] + shiftX);
+                        offsets[i + 1] = wrap(offsets[i + 1] + shiftY);
+                    }
+                }
+            } else if (kind == Kind.DISK) {
+                double angle = 2 * Math.PI * rotation / ROTATIONS;
+                for (int i = 0; i < offsets.length; i += 2)
+                    toDisk(offsets, i, angle);
+            }
+            patterns[rotation] = new SamplePattern(offsets, probes);
+        }
+        return patterns;
+    }
+
+    /**
+     * chooses the probe samples of a pattern - a few samples spread over the whole area: the samples closest to
+     * the corners, to the middles of the edges and to the center of the square, which lie on the rim and in the
+     * center of the disk after mapping. small patterns have no probes
+     *
+     * @param offsets         the offsets of the samples on the square
+     * @param amountOfSamples amount of samples on each edge
+     * @return the indexes of the probes in ascending order
+     */
+    private static int[] probes(double[] offsets, int amountOfSamples) {
+        if (amountOfSamples < MIN_PROBED_SAMPLES)
+            return new int[0];
+        int[] probes = new int[9];
+        boolean[] taken = new boolean[offsets.length / 2];
+        for (int p = 0; p < probes.length; p++) {
+            double x = p % 3 * 0.5 - 0.5, y = p / 3 * 0.5 - 0.5;
+            double closest = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < taken.length; i++) {
+                double dx = offsets[2 * i] - x, dy = offsets[2 * i + 1] - y;
+                if (!taken[i] && dx * dx + dy * dy < closest) {
+                    closest = dx * dx + dy * dy;
+                    probes[p] = i;
+                }
+            }
+            taken[probes[p]] = true;
+        }
+        Arrays.sort(probes);
+        return probes;
+    }
+
+    /**
+     * generates the points of a square grid, row by row from the upper left cell
+     *
+     * @param amountOfSamples amount of samples on each edge
+     * @param jitter          true for a random point in every cell, false for the centers of the cells
+     * @param random          the random generator
+     * @return the offsets
+     */
+    private static double[] grid(int amountOfSamples, boolean jitter, Random random) {
+        double cell = 1d / amountOfSamples;
+        double[] offsets = new double[2 * amountOfSamples * amountOfSamples];
+        for (int i = 0; i < amountOfSamples; i++)
+            for (int j = 0; j < amountOfSamples; j++) {
+                int index = 2 * (i * amountOfSamples + j);
+                offsets[index] = (j + (jitter ? random.nextDouble() : 0.5)) * cell - 0.5;
+                offsets[index + 1] = 0.5 - (i + (jitter ? random.nextDouble() : 0.5)) * cell;
+            }
+        return offsets;
+    }
+
+    /**
+     * generates the first points of the Halton sequence in bases 2 and 3
+     *
+     * @param count amount of points
+     * @return the offsets
+     */
+    private static double[] halton(int count) {
+        double[] offsets = new double[2 * count];
+        for (int i = 0; i < count; i++) {
+            offsets[2 * i] = radicalInverse(i + 1, 2) - 0.5;
+            offsets[2 * i + 1] = radicalInverse(i + 1, 3) - 0.5;
+        }
+        return offsets;
+    }
+
+    /**
+     * returns the radical inverse of a number - its digits in a base mirrored around the decimal point
+     *
+     * @param number the number
+     * @param base   the base
+     * @return the radical inverse, between 0 and 1
+     */
+    private static double radicalInverse(int number, int base) {
+        double result = 0, digitValue = 1d / base;
+        for (; number > 0; number /= base, digitValue /= base)
+            result += number % base * digitValue;
+        return result;
+    }
+
+    /**
+     * generates the first points of the two-dimensional Sobol sequence, scrambled by a digital shift
+     *
+     * @param count  amount of points
+     * @param shiftX the bits the first coordinate is scrambled with
+     * @param shiftY the bits the second coordinate is scrambled with
+     * @return the offsets
+     */
+    private static double[] sobol(int count, int shiftX, int shiftY) {
+        double[] offsets = new double[2 * count];
+        for (int i = 0; i < count; i++) {
+            //the first dimension is the van der Corput sequence, the second uses the direction numbers of x+1
+            int x = Integer.reverse(i), y = 0;
+            for (int bits = i, v = 1 << 31; bits != 0; bits >>>= 1, v ^= v >>> 1)
+                if ((bits & 1) != 0)
+                    y ^= v;
+            offsets[2 * i] = ((x ^ shiftX) >>> 1) * 0x1p-31 - 0.5;
+            offsets[2 * i + 1] = ((y ^ shiftY) >>> 1) * 0x1p-31 - 0.5;
+        }
+        return offsets;
+    }
+
+    /**
+     * generates a tile of blue noise by the best candidate algorithm - every point is the farthest of several
+     * random candidates from the points before it. the distances wrap around the edges, so the rotated copies
+     * (moved with wrapping) stay blue noise
+     *
+     * @param count  amount of points
+     * @param random the random generator
+     * @return the offsets
+     */
+    private static double[] blueNoise(int count, Random random) {
+        final int CANDIDATES = 16;
+        double[] offsets = new double[2 * count];
+        for (int i = 0; i < count; i++) {
+            double bestX = 0, bestY = 0, bestDistance = -1;
+            for (int c = 0; c < CANDIDATES; c++) {
+                double x = random.nextDouble() - 0.5, y = random.nextDouble() - 0.5;
+                double distance = Double.POSITIVE_INFINITY;
+                for (int j = 0; j < i; j++) {
+                    double dx = Math.abs(x - offsets[2 * j]), dy = Math.abs(y - offsets[2 * j + 1]);
+                    dx = Math.min(dx, 1 - dx);
+                    dy = Math.min(dy, 1 - dy);
+                    distance = Math.min(distance, dx * dx + dy * dy);
+                }
+                if (distance > bestDistance) {
+                    bestDistance = distance;
+                    bestX = x;
+                    bestY = y;
+                }
+            }
+            offsets[2 * i] = bestX;
+            offsets[2 * i + 1] = bestY;
+        }
+        return offsets;
+    }
+
+    /**
+     * moves a coordinate that left the unit square back into it from the other side
+     *
+     * @param coordinate the coordinate, between -0.5 and 1.5
+     * @return the coordinate between -0.5 and 0.5
+     */
+    private static double wrap(double coordinate) {
+        return coordinate >= 0.5 ? coordinate - 1 : coordinate;
+    }
+
+    /**
+     * maps an offset on the unit square to the unit disk by the concentric mapping, which keeps the
+     * proportions of the cells, and rotates it
+     *
+     * @param offsets the offsets
+     * @param index   the index of the first coordinate of the offset
+     * @param angle   the rotation angle in radians
+     */
+    private static void toDisk(double[] offsets, int index, double angle) {
+        double a = 2 * offsets[index], b = 2 * offsets[index + 1];
+        double radius, phi;
+        if (a == 0 && b == 0) {
+            radius = 0;
+            phi = 0;
+        } else if (Math.abs(a) > Math.abs(b)) {
+            radius = a;
+            phi = Math.PI / 4 * (b / a);
+        } else {
+            radius = b;
+            phi = Math.PI / 2 - Math.PI / 4 * (a / b);
+        }
+        offsets[index] = 0.5 * radius * Math.cos(phi + angle);
+        offsets[index + 1] = 0.5 * radius * Math.sin(phi + angle);
+    }
+
+    /**
+     * returns the amount of samples in the pattern
+     *
+     * @return the amount of samples
+     */
+    public int size() {
+        return offsets.length / 2;
+    }
+
+    /**
+     * returns the amount of probe samples - a few samples spread over the whole pattern, that tell whether
+     * sampling the rest of the pattern is needed (0 for small patterns)
+     *
+     * @return the amount of probes
+     */
+    public int probeCount() {
+        return probes.length;
+    }
+
+    /**
+     * returns the index of a probe sample, the probes are in ascending order
+     *
+     * @param index the index of the probe
+     * @return the index of the sample
+     */
+    public int getProbe(int index) {
+        return probes[index];
+    }
+
+    /**
+     * returns the horizontal offset of a sample
+     *
+     * @param index the index of the sample
+     * @return the offset, between -0.5 and 0.5
+     */
+    public double getX(int index) {
+        return offsets[2 * index];
+    }
+
+    /**
+     * returns the vertical offset of a sample
+     *
+     * @param index the index of the sample
+     * @return the offset, between -0.5 and 0.5
+     */
+    public double getY(int index) {
+        return offsets[2 * index + 1];
+    }
+}
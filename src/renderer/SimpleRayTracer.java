@@ -1,11 +1,14 @@
 package renderer;
 
+import geometries.Intersectable;
 import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.Hit;
 import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
 
 import java.util.List;
+import java.util.function.IntFunction;
 
 import static primitives.Util.alignZero;
 
@@ -19,11 +22,11 @@ public class SimpleRayTracer extends RayTracerBase {
     /**
      * max recursive deepness level
      */
-    private static final int MAX_CALC_COLOR_LEVEL = 10;
+    protected static final int MAX_CALC_COLOR_LEVEL = 10;
     /**
      * minimal attenuation factor
      */
-    private static final double MIN_CALC_COLOR_K = 0.001;
+    protected static final double MIN_CALC_COLOR_K = 0.001;
     /**
      * initial attenuation factor
      */
@@ -58,7 +61,7 @@ public class SimpleRayTracer extends RayTracerBase {
      */
 
     private Color calcColor(GeoPoint gp, Ray ray, int level, Double3 k, int amountOfSamples) {
-        Color color = calcLocalEffects(gp, ray, k, amountOfSamples);
+        Color color = calcLocalEffects(gp, ray, k.getD1(), k.getD2(), k.getD3(), amountOfSamples);
         return 1 == level ? color
                 : color.add(calcGlobalEffects(gp, ray, level, k, amountOfSamples));
     }
@@ -74,7 +77,7 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return the Color of the global effects on the point
      */
     private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k, int amountOfSamples) {
-        Vector n = gp.geometry.getNormal(gp.point);
+        Vector n = gp.getNormal();
         Material material = gp.geometry.getMaterial();
         return calcColorGlobalEffect(constructRefractedRay(gp, ray, n), material.kT, level, k, amountOfSamples)
                 .add(calcColorGlobalEffect(constructReflectedRay(gp, ray, n), material.kR, level, k, amountOfSamples));
@@ -88,7 +91,7 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param n   the normal to the geometry from the point
      * @return reflection ray
      */
-    private Ray constructReflectedRay(GeoPoint gp, Ray ray, Vector n) {
+    protected Ray constructReflectedRay(GeoPoint gp, Ray ray, Vector n) {
         Vector l = ray.getDirection();
         double nl = alignZero(n.dotProduct(l));
         //r = reflection vector
@@ -105,7 +108,7 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param n   the normal to the geometry from the point
      * @return refraction ray
      */
-    private Ray constructRefractedRay(GeoPoint gp, Ray ray, Vector n) {
+    protected Ray constructRefractedRay(GeoPoint gp, Ray ray, Vector n) {
         return new Ray(gp.point, ray.getDirection(), n);
     }
 
@@ -122,6 +125,12 @@ public class SimpleRayTracer extends RayTracerBase {
     private Color calcColorGlobalEffect(Ray ray, Double3 kx, int level, Double3 k, int amountOfSamples) {
         Double3 kkx = kx.product(k);
         if (kkx.lowerThan(MIN_CALC_COLOR_K)) return Color.BLACK;
+        double chance = survive(kkx.getD1(), kkx.getD2(), kkx.getD3());
+        if (chance == 0) return Color.BLACK;
+        if (chance != 1) {//the surviving rays make up for the terminated ones
+            kx = kx.reduce(chance);
+            kkx = kkx.reduce(chance);
+        }
         GeoPoint gp = findClosestIntersection(ray);
         return (gp == null ? scene.background : calcColor(gp, ray, level - 1, kkx, amountOfSamples))
                 .scale(kx);
@@ -133,9 +142,9 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param ray the ray
      * @return the intersection or null of there are no intersections
      */
-    private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
-        return intersections == null ? null : ray.findClosestGeoPoint(intersections);
+    protected GeoPoint findClosestIntersection(Ray ray) {
+        countRay();
+        return scene.geometries.findClosestGeoIntersection(ray);
     }
 
     /**
@@ -157,38 +166,82 @@ public class SimpleRayTracer extends RayTracerBase {
      *
      * @param gp              the point
      * @param ray             the ray being traced
-     * @param k               the attenuation factor
+     * @param k1,k2,k3        the attenuation factor
      * @param amountOfSamples the amount of samples for super-sampling
      * @return the color of the point taking only local effects into account
      */
-    private Color calcLocalEffects(GeoPoint gp, Ray ray, Double3 k, int amountOfSamples) {
+    protected Color calcLocalEffects(GeoPoint gp, Ray ray, double k1, double k2, double k3, int amountOfSamples) {
         //n = normal
-        Vector n = gp.geometry.getNormal(gp.point);
+        Vector n = gp.getNormal();
         Vector v = ray.getDirection();
         double nv = alignZero(n.dotProduct(v));
         Color color = gp.geometry.getEmission();
         //if nv = 0 the ray is parallel to the object
         if (nv == 0) return color;
         Material material = gp.geometry.getMaterial();
-        //calculate the effect for every light source in the scene
-        for (LightSource lightSource : scene.lights) {
-            Vector l = lightSource.getL(gp.point);
-            double nl = alignZero(n.dotProduct(l));
-
-            //if sign(nl) != sign(nv) the light is behind the object
-            if (nl * nv > 0) { // sign(nl) == sign(nv)
-                Double3 ktr = transparency(gp, lightSource, l, n, amountOfSamples);
-                if (!ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) {
-                    Color iL = lightSource.getIntensity(gp.point).scale(ktr);
-                    color = color.add(
-                            iL.scale(calcDiffusive(material, nl)
-                                    .add(calcSpecular(material, n, l, nl, v))));
-                }
+        List<LightSource> lights = getLights(gp.point);
+        if (lightSamples == 0 || lights.size() <= lightSamples) {
+            //calculate the effect for every light source in the scene
+            for (LightSource lightSource : lights)
+                color = color.add(calcLightEffect(gp, lightSource, n, v, nv, material, k1, k2, k3, amountOfSamples));
+            return color;
+        }
+
+        //choose the lights in proportion to their light on the point without shadows, and divide their effect by
+        //the chance they were chosen with, so the expected color stays the same
+        double[] weights = new double[lights.size()];
+        boolean lit = false;
+        for (int i = 0; i < weights.length; i++) {
+            LightSource lightSource = lights.get(i);
+            double nl = alignZero(n.dotProduct(lightSource.getL(gp.point)));
+            if (nl * nv > 0) {
+                Color iL = lightSource.getIntensity(gp.point);
+                weights[i] = Math.max(iL.getRed(), Math.max(iL.getGreen(), iL.getBlue())) * Math.abs(nl);
+                lit |= weights[i] > 0;
             }
         }
+        if (!lit) return color;
+        AliasTable table = new AliasTable(weights);
+        FastRandom random = FastRandom.current();
+        for (int i = 0; i < lightSamples; i++) {
+            int chosen = table.sample(random);
+            color = color.add(calcLightEffect(gp, lights.get(chosen), n, v, nv, material, k1, k2, k3, amountOfSamples)
+                    .scale(1 / (lightSamples * table.getProbability(chosen))));
+        }
         return color;
     }
 
+    /**
+     * calculate the effect of a light source on a point
+     *
+     * @param gp              the point
+     * @param lightSource     the light source
+     * @param n               the normal to the geometry at the point
+     * @param v               the direction of the ray being traced
+     * @param nv              cosine of angle between the normal and the ray
+     * @param material        the material of the geometry
+     * @param k1,k2,k3        the attenuation factor
+     * @param amountOfSamples the amount of samples for super-sampling
+     * @return the color the light adds to the point
+     */
+    private Color calcLightEffect(GeoPoint gp, LightSource lightSource, Vector n, Vector v, double nv,
+                                  Material material, double k1, double k2, double k3, int amountOfSamples) {
+        Vector l = lightSource.getL(gp.point);
+        double nl = alignZero(n.dotProduct(l));
+
+        //if sign(nl) != sign(nv) the light is behind the object
+        if (nl * nv > 0) { // sign(nl) == sign(nv)
+            Double3 ktr = transparency(gp, lightSource, l, n, amountOfSamples);
+            if (ktr.getD1() * k1 >= MIN_CALC_COLOR_K || ktr.getD2() * k2 >= MIN_CALC_COLOR_K
+                    || ktr.getD3() * k3 >= MIN_CALC_COLOR_K) {
+                Color iL = lightSource.getIntensity(gp.point).scale(ktr);
+                return iL.scale(calcDiffusive(material, nl)
+                        .add(calcSpecular(material, n, l, nl, v)));
+            }
+        }
+        return Color.BLACK;
+    }
+
 
     /**
      * calculate the diffusive component of the reflection
@@ -214,9 +267,9 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return the specular component of the reflection
      */
     private Double3 calcSpecular(Material material, Vector n, Vector l, double nl, Vector v) {
-        //r = reflection vector
-        Vector r = l.subtract(n.scale(nl * 2));
-        double deflection = alignZero(-(v.dotProduct(r)));
+        //r = reflection vector, calculated in place
+        MutableVector r = new MutableVector(l).addScaled(n, -nl * 2);
+        double deflection = alignZero(-(r.dotProduct(v)));
 
         //if deflection < 0  - more than 90 degrees there will be not specular component
         double max = deflection > 0 ? deflection : 0;
@@ -242,13 +295,7 @@ public class SimpleRayTracer extends RayTracerBase {
         Vector lightDirection = l.scale(-1); // from point to light source
         Ray ray = new Ray(gp.point, lightDirection, n);
         double distance = lightSource.getDistance(gp.point);
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray, distance);
-        if (intersections == null)
-            return true;
-        for (GeoPoint intersection : intersections)
-            if (Double3.ZERO.equals(intersection.geometry.getMaterial().kT))
-                return false;
-        return true;
+        return scene.geometries.findTransparency(ray, distance) != Double3.ZERO;
     }
 
     /**
@@ -263,7 +310,7 @@ public class SimpleRayTracer extends RayTracerBase {
     private Double3 transparency(GeoPoint gp, LightSource lightSource, Vector l, Vector n) {
         Vector lightDirection = l.scale(-1); // from point to light source
         double lightSourceDistance = lightSource.getDistance(gp.point);
-        return getTransparencyFromPoint(gp.point, n, lightDirection, lightSourceDistance);
+        return getTransparencyFromPoint(gp.point, n, lightDirection, lightSourceDistance, lightSource);
     }
 
     /**
@@ -273,19 +320,25 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param lightDirection direction vector from point to light source
      * @param n              normal vector of geometry from point
      * @param lightSourceDistance distance from point to light source
+     * @param lightSource    the light source, for the shadow cache
      * @return the transparency of the point as Double3 (rgb)
      */
-    private Double3 getTransparencyFromPoint(Point point, Vector n, Vector lightDirection, double lightSourceDistance) {
+    private Double3 getTransparencyFromPoint(Point point, Vector n, Vector lightDirection, double lightSourceDistance,
+                                             LightSource lightSource) {
         Ray ray = new Ray(point, lightDirection, n);
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray, lightSourceDistance);
-
-        Double3 ktr = Double3.ONE;
-        if (intersections != null)
-            for (GeoPoint intersection : intersections) {
-                ktr = ktr.product(intersection.geometry.getMaterial().kT);
-                if (ktr == Double3.ZERO)
-                    break;
-            }
+        if (!shadowCache)
+            return scene.geometries.findTransparency(ray, lightSourceDistance);
+
+        Intersectable occluder = getOccluder(lightSource);
+        if (occluder != null && occluder.findTransparency(ray, lightSourceDistance) == Double3.ZERO) {
+            countShadowCache(true);
+            return Double3.ZERO;
+        }
+        countShadowCache(false);
+        //a single walk of the scene - a blocked ray reports its occluder, lit rays keep the last occluder
+        Double3 ktr = scene.geometries.findTransparency(ray, lightSourceDistance);
+        if (ktr == Double3.ZERO)
+            setOccluder(lightSource, Hit.current().occluder);
         return ktr;
     }
 
@@ -302,16 +355,43 @@ public class SimpleRayTracer extends RayTracerBase {
     private Double3 transparency(GeoPoint gp, LightSource lightSource, Vector l, Vector n, int amountOfSamples) {
         if (lightSource.getRadius() == 0)
             return transparency(gp, lightSource, l, n);
-        Vector orthogonalV = l.createOrthogonal();
-        Blackboard blackboard = new Blackboard(lightSource.getPosition(), orthogonalV, orthogonalV.crossProduct(l), lightSource.getRadius() * 2).setCircle(true);
-        List<Point> list = blackboard.getPoints(amountOfSamples);
-        Double3 ktr = Double3.ZERO;
-        Vector lightDirection;
-        for (Point point : list) {
-            lightDirection = point.subtract(gp.point).normalize();
-            ktr = ktr.add(getTransparencyFromPoint(gp.point, n, lightDirection, gp.point.distance(point)));
+        Vector up = l.createOrthogonal();
+        Vector right = up.crossProduct(l);
+        double size = lightSource.getRadius() * 2;
+        SamplePattern pattern = SamplePattern.disk(sampling, amountOfSamples, FastRandom.current().nextInt(SamplePattern.ROTATIONS));
+        Point position = lightSource.getPosition();
+        MutableVector toSample = new MutableVector();
+        IntFunction<Double3> sample = i -> {
+            //the vector from the point to the sample on the disk of the light
+            toSample.set(position).subtract(gp.point)
+                    .addScaled(right, pattern.getX(i) * size)
+                    .addScaled(up, pattern.getY(i) * size);
+            double distance = toSample.length();
+            Vector lightDirection = toSample.scale(1 / distance).toVector();
+            return getTransparencyFromPoint(gp.point, n, lightDirection, distance, lightSource);
+        };
+        //the probes spread over the light - if they all agree the point is fully lit or fully shadowed
+        int probes = adaptiveSoftShadows ? pattern.probeCount() : 0;
+        Double3 ktr = Double3.ZERO, first = null;
+        boolean penumbra = false;
+        for (int p = 0; p < probes; p++) {
+            Double3 probe = sample.apply(pattern.getProbe(p));
+            if (first == null)
+                first = probe;
+            else if (!penumbra && !probe.equals(first))
+                penumbra = true;
+            ktr = ktr.add(probe);
+        }
+        if (probes != 0 && !penumbra)
+            return first;
+        for (int i = 0, p = 0; i < pattern.size(); i++) {
+            if (p < probes && pattern.getProbe(p) == i) {//cast already
+                p++;
+                continue;
+            }
+            ktr = ktr.add(sample.apply(i));
         }
-        return ktr.reduce(list.size());
+        return ktr.reduce(pattern.size());
     }
 }
 
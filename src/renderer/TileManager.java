@@ -0,0 +1,217 @@
+package renderer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TileManager is a helper class for multi-threading in the renderer and for following its progress.
+ * the image is divided to square tiles that are handed out to the threads by an atomic counter,
+ * so threads do not lock each other for every pixel. the pixels of a tile are visited in scanline order
+ * or in Hilbert curve order, so neighbouring pixels (that usually hit the same geometries) are rendered
+ * one after the other. the progress is counted by every thread for a whole tile and added without locking
+ *
+ * @author Elad and Amitay
+ */
+class TileManager {
+    /**
+     * the work done for a single pixel
+     */
+    @FunctionalInterface
+    interface PixelTask {
+        /**
+         * renders a pixel
+         *
+         * @param column,row the pixel's indexes
+         */
+        void render(int column, int row);
+    }
+
+    /**
+     * Printing format
+     */
+    private static final String PRINT_FORMAT = "%5.1f%%\r";
+
+    /**
+     * amount of pixel rows
+     */
+    private final int maxRows;
+    /**
+     * amount of pixel columns
+     */
+    private final int maxCols;
+    /**
+     * the length of the edge of a tile in pixels
+     */
+    private final int tileSize;
+    /**
+     * amount of tiles in a row of tiles
+     */
+    private final int tilesInRow;
+    /**
+     * total amount of tiles
+     */
+    private final int totalTiles;
+    /**
+     * Total amount of pixels in the generated image
+     */
+    private final long totalPixels;
+    /**
+     * the offsets of the pixels inside a tile in the order they are visited - the column and the row of each
+     * pixel one after the other
+     */
+    private final int[] order;
+
+    /**
+     * the index of the next tile to be handed out
+     */
+    private final AtomicInteger nextTile = new AtomicInteger();
+    /**
+     * Amount of pixels that have been processed
+     */
+    private final AtomicLong pixels = new AtomicLong();
+    /**
+     * Last printed progress update percentage (in tenths of percent)
+     */
+    private final AtomicInteger lastPrinted = new AtomicInteger();
+    /**
+     * Progress percentage printing interval (in tenths of percent) ; 0 if printing is not required
+     */
+    private final long printInterval;
+
+    /**
+     * Initialize tile manager data for multi-threading
+     *
+     * @param maxRows  the amount of pixel rows
+     * @param maxCols  the amount of pixel columns
+     * @param tileSize the length of the edge of a tile in pixels
+     * @param hilbert  true for visiting the pixels of a tile in Hilbert curve order (used only if the tile size
+     *                 is a power of 2), false for scanline order
+     * @param interval print time interval in seconds, 0 if printing is not required
+     */
+    TileManager(int maxRows, int maxCols, int tileSize, boolean hilbert, double interval) {
+        this.maxRows = maxRows;
+        this.maxCols = maxCols;
+        this.tileSize = tileSize;
+        tilesInRow = (maxCols + tileSize - 1) / tileSize;
+        totalTiles = tilesInRow * ((maxRows + tileSize - 1) / tileSize);
+        totalPixels = (long) maxRows * maxCols;
+        order = hilbert && Integer.bitCount(tileSize) == 1 ? hilbertOrder(tileSize) : scanlineOrder(tileSize);
+        printInterval = (long) (interval * 10);
+        if (printInterval != 0) System.out.printf(PRINT_FORMAT, 0d);
+    }
+
+    /**
+     * returns the offsets of the pixels of a tile in scanline order
+     *
+     * @param size the length of the edge of the tile
+     * @return the column and the row of each pixel one after the other
+     */
+    private static int[] scanlineOrder(int size) {
+        int[] order = new int[2 * size * size];
+        for (int i = 0; i < size * size; i++) {
+            order[2 * i] = i % size;
+            order[2 * i + 1] = i / size;
+        }
+        return order;
+    }
+
+    /**
+     * returns the offsets of the pixels of a tile along a Hilbert curve, where every pixel is a neighbour
+     * of the previous one
+     *
+     * @param size the length of the edge of the tile - a power of 2
+     * @return the column and the row of each pixel one after the other
+     */
+    private static int[] hilbertOrder(int size) {
+        int[] order = new int[2 * size * size];
+        for (int d = 0; d < size * size; d++) {
+            int x = 0, y = 0;
+            for (int s = 1, t = d; s < size; s *= 2, t /= 4) {
+                int rx = 1 & (t / 2);
+                int ry = 1 & (t ^ rx);
+                if (ry == 0) {//rotate the quadrant
+                    if (rx == 1) {
+                        x = s - 1 - x;
+                        y = s - 1 - y;
+                    }
+                    int temp = x;
+                    x = y;
+                    y = temp;
+                }
+                x += s * rx;
+                y += s * ry;
+            }
+            order[2 * d] = x;
+            order[2 * d + 1] = y;
+        }
+        return order;
+    }
+
+    /**
+     * takes the next tile that was not handed out yet and renders all of its pixels. thread-safe without locking
+     *
+     * @param task the work done for every pixel
+     * @return true if a tile was rendered, false if there are no more tiles
+     */
+    boolean renderNextTile(PixelTask task) {
+        int tile = nextTile.getAndIncrement();
+        if (tile >= totalTiles)
+            return false;
+        renderTile(tile, task);
+        return true;
+    }
+
+    /**
+     * renders all the pixels of a tile and adds them to the progress
+     *
+     * @param tile the index of the tile (tiles are numbered row by row)
+     * @param task the work done for every pixel
+     */
+    void renderTile(int tile, PixelTask task) {
+        int firstColumn = (tile % tilesInRow) * tileSize;
+        int firstRow = (tile / tilesInRow) * tileSize;
+        int count = 0;
+        for (int i = 0; i < order.length; i += 2) {
+            int column = firstColumn + order[i], row = firstRow + order[i + 1];
+            if (column < maxCols && row < maxRows) {//tiles on the edges of the image may be partial
+                task.render(column, row);
+                count++;
+            }
+        }
+        tileDone(count);
+    }
+
+    /**
+     * returns the amount of tiles in the image
+     *
+     * @return the amount of tiles
+     */
+    int getTotalTiles() {
+        return totalTiles;
+    }
+
+    /**
+     * adds the pixels of a finished tile to the progress and prints the progress percentage if needed
+     *
+     * @param count amount of pixels in the tile
+     */
+    private void tileDone(int count) {
+        long done = pixels.addAndGet(count);
+        if (printInterval == 0)
+            return;
+        int percentage = (int) (1000L * done / totalPixels);
+        int last = lastPrinted.get();
+        //only the thread that moved the printed percentage prints it
+        if (percentage - last >= printInterval && lastPrinted.compareAndSet(last, percentage))
+            System.out.printf(PRINT_FORMAT, percentage / 10d);
+    }
+
+    /**
+     * returns the amount of pixels that have been processed
+     *
+     * @return the amount of pixels
+     */
+    long getPixels() {
+        return pixels.get();
+    }
+}
@@ -0,0 +1,82 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link BoundingBox}
+ *
+ * @author Elad and Amitay
+ */
+class BoundingBoxTests {
+
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in
+     * assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    BoundingBox box = new BoundingBox(0, 0, 0, 1, 2, 3);
+
+    /**
+     * Test method for {@link BoundingBox#intersects(Ray, double)}
+     */
+    @Test
+    void testIntersects() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Ray crosses the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 1, 1), new Vector(1, 0.1, 0.1)), Double.POSITIVE_INFINITY), "Ray crosses the box");
+        //TC02: Ray misses the box
+        assertFalse(box.intersects(new Ray(new Point(-1, 1, 1), new Vector(1, 5, 0)), Double.POSITIVE_INFINITY), "Ray misses the box");
+        //TC03: Ray starts after the box
+        assertFalse(box.intersects(new Ray(new Point(2, 1, 1), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY), "Ray starts after the box");
+        //TC04: Ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(0.5, 1, 1), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY), "Ray starts inside the box");
+        //TC05: Box is farther than the maximum distance
+        assertFalse(box.intersects(new Ray(new Point(-5, 1, 1), new Vector(1, 0, 0)), 4), "Box is farther than the maximum distance");
+        // =============== Boundary Values Tests ==================
+        //TC11: Ray is parallel to the box and crosses it
+        assertTrue(box.intersects(new Ray(new Point(0.5, -1, 1), new Vector(0, 1, 0)), Double.POSITIVE_INFINITY), "Ray is parallel to the box and crosses it");
+        //TC12: Ray is parallel to the box and misses it
+        assertFalse(box.intersects(new Ray(new Point(1.5, -1, 1), new Vector(0, 1, 0)), Double.POSITIVE_INFINITY), "Ray is parallel to the box and misses it");
+        //TC13: Ray crosses a flat box (axis-aligned triangle)
+        assertTrue(new BoundingBox(0, 0, 1, 1, 1, 1).intersects(new Ray(new Point(0.5, 0.5, 5), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY), "Ray crosses a flat box");
+        //TC14: Infinite box
+        assertTrue(BoundingBox.INFINITE.intersects(new Ray(new Point(1, 1, 1), new Vector(1, 0, 0)), 1), "Infinite box");
+        //TC15: Empty box
+        assertFalse(BoundingBox.EMPTY.intersects(new Ray(new Point(1, 1, 1), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY), "Empty box");
+    }
+
+    /**
+     * Test method for {@link Intersectable#getBoundingBox()}
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Sphere
+        BoundingBox sphereBox = new Sphere(1d, new Point(1, 2, 3)).getBoundingBox();
+        assertEquals(0, sphereBox.minX, DELTA, "Wrong sphere bounding box");
+        assertEquals(4, sphereBox.maxZ, DELTA, "Wrong sphere bounding box");
+        //TC02: Triangle
+        BoundingBox triangleBox = new Triangle(new Point(0, 0, 0), new Point(2, 0, 0), new Point(0, 3, 1)).getBoundingBox();
+        assertEquals(2, triangleBox.maxX, DELTA, "Wrong triangle bounding box");
+        assertEquals(3, triangleBox.maxY, DELTA, "Wrong triangle bounding box");
+        //TC03: Plane and tube are unbounded
+        assertTrue(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)).getBoundingBox().isInfinite(), "Plane must be unbounded");
+        assertTrue(new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))).getBoundingBox().isInfinite(), "Tube must be unbounded");
+        //TC04: Geometries is the union of its geometries
+        Geometries geometries = new Geometries(new Sphere(1d, new Point(0, 0, 0)), new Sphere(1d, new Point(5, 0, 0)));
+        assertEquals(-1, geometries.getBoundingBox().minX, DELTA, "Wrong geometries bounding box");
+        assertEquals(6, geometries.getBoundingBox().maxX, DELTA, "Wrong geometries bounding box");
+        // =============== Boundary Values Tests ==================
+        //TC11: Geometries with an unbounded geometry
+        geometries.add(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)));
+        assertTrue(geometries.getBoundingBox().isInfinite(), "Geometries with a plane must be unbounded");
+        //TC12: Empty geometries
+        assertFalse(new Geometries().getBoundingBox().isInfinite(), "Empty geometries must not be unbounded");
+    }
+}
@@ -0,0 +1,103 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link FlatBVH}
+ *
+ * @author Elad and Amitay
+ */
+class FlatBVHTests {
+
+    /**
+     * creates geometries of a row of spheres, a row of triangles and a plane
+     *
+     * @return the geometries
+     */
+    private Geometries geometries() {
+        Geometries geometries = new Geometries(new Plane(new Point(0, -5, 0), new Vector(0, 1, 0)));
+        for (int i = 0; i < 50; i++)
+            geometries.add(new Sphere(1d, new Point(i * 3, 0, 0)), new Triangle(new Point(i * 3, 3, 1), new Point(i * 3 + 1, 3, 1), new Point(i * 3, 4, 1)));
+        return geometries;
+    }
+
+    /**
+     * Test method for {@link FlatBVH#findGeoIntersectionsHelper(Ray, double)}
+     */
+    @Test
+    void testFindGeoIntersectionsHelper() {
+        FlatBVH hierarchy = new FlatBVH(geometries());
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Ray crosses all the spheres (100 points)
+        assertEquals(100, hierarchy.findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0))).size(), "Ray crosses all the spheres");
+        //TC02: Ray crosses one sphere and the plane (3 points)
+        assertEquals(3, hierarchy.findIntersections(new Ray(new Point(6, 10, 0), new Vector(0, -1, 0))).size(), "Ray crosses one sphere and the plane");
+        //TC03: Ray crosses one triangle (1 point)
+        assertEquals(1, hierarchy.findIntersections(new Ray(new Point(9.2, 3.2, 5), new Vector(0, 0, -1))).size(), "Ray crosses one triangle");
+        //TC04: Ray misses all the geometries
+        assertNull(hierarchy.findIntersections(new Ray(new Point(-5, 10, 0), new Vector(1, 0, 0))), "Ray misses all the geometries");
+        // =============== Boundary Values Tests ==================
+        //TC11: Ray crosses the spheres up to a maximum distance (7 points)
+        assertEquals(7, hierarchy.findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0)), 13).size(), "Ray crosses the spheres up to a maximum distance");
+        //TC12: Empty geometries
+        assertNull(new FlatBVH(new Geometries()).findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0))), "Empty geometries");
+    }
+
+    /**
+     * Test method for {@link Geometries#buildFlatBVH()}
+     */
+    @Test
+    void testBuildFlatBVH() {
+        Geometries list = geometries();
+        Geometries compiled = geometries().buildFlatBVH();
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The compiled geometries find the same intersections as the list
+        for (int i = 0; i < 20; i++) {
+            Ray ray = new Ray(new Point(i * 7 - 10, 10, 20), new Vector(0.3 * i - 2, -1, -2));
+            var expected = list.findIntersections(ray);
+            var result = compiled.findIntersections(ray);
+            assertEquals(expected == null ? 0 : expected.size(), result == null ? 0 : result.size(), "Wrong amount of intersections");
+            if (expected != null)
+                assertTrue(result.containsAll(expected), "Wrong intersections");
+        }
+    }
+
+    /**
+     * Test method for {@link FlatBVH#linear(Geometries, boolean)}
+     */
+    @Test
+    void testLinear() {
+        Geometries list = geometries();
+        for (boolean longCodes : new boolean[]{false, true}) {
+            FlatBVH hierarchy = FlatBVH.linear(geometries(), longCodes);
+            // ============ Equivalence Partitions Tests ==============
+            //TC01: Every leaf holds one primitive
+            assertEquals(2 * 100 - 1, hierarchy.getNodeCount(), "Wrong amount of nodes");
+            //TC02: The linear hierarchy finds the same intersections as the list
+            for (int i = 0; i < 20; i++) {
+                Ray ray = new Ray(new Point(i * 7 - 10, 10, 20), new Vector(0.3 * i - 2, -1, -2));
+                var expected = list.findIntersections(ray);
+                var result = hierarchy.findIntersections(ray);
+                assertEquals(expected == null ? 0 : expected.size(), result == null ? 0 : result.size(), "Wrong amount of intersections");
+                if (expected != null)
+                    assertTrue(result.containsAll(expected), "Wrong intersections");
+            }
+            // =============== Boundary Values Tests ==================
+            //TC11: All the primitives have the same centroid
+            Geometries same = new Geometries();
+            for (int i = 0; i < 10; i++)
+                same.add(new Sphere(i + 1d, new Point(0, 0, 0)));
+            assertEquals(20, FlatBVH.linear(same, longCodes).findIntersections(new Ray(new Point(-20, 0, 0), new Vector(1, 0, 0))).size(), "Primitives with the same centroid");
+            //TC12: Primitives closer than the cells of the short codes, far from the other primitives
+            Geometries close = new Geometries(new Sphere(1d, new Point(-1000, 0, 0)), new Sphere(1d, new Point(1000, 0, 0)));
+            for (int i = 0; i < 10; i++)
+                close.add(new Sphere(0.01, new Point(0.05 * i, 0, 0)));
+            assertEquals(24, FlatBVH.linear(close, longCodes).findIntersections(new Ray(new Point(-2000, 0, 0), new Vector(1, 0, 0))).size(), "Primitives in the same cell");
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import geometries.Intersectable.GeoPoint;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * unit tests for {@link Geometries}
@@ -55,4 +57,156 @@ class GeometriesTests {
         //TC11: an intersection is on distance (3 points)
         assertEquals(3, geometries.findIntersections(new Ray(new Point(6, 1.5, 0), new Vector(-1, 0, 0)),5.150000000000001).size(), "an intersection is on distance");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link Geometries#buildBVH()}
+     */
+    @Test
+    void testBuildBVH() {
+        Geometries hierarchy = new Geometries(new Plane(new Point(0, -5, 0), new Vector(0, 1, 0)));
+        for (int i = 0; i < 10; i++)
+            hierarchy.add(new Sphere(1d, new Point(i * 3, 0, 0)), new Triangle(new Point(i * 3, 3, 1), new Point(i * 3 + 1, 3, 1), new Point(i * 3, 4, 1)));
+        hierarchy.buildBVH();
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Ray crosses all the spheres (20 points)
+        assertEquals(20, hierarchy.findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0))).size(), "Ray crosses all the spheres");
+        //TC02: Ray crosses one sphere and the plane (3 points)
+        assertEquals(3, hierarchy.findIntersections(new Ray(new Point(6, 10, 0), new Vector(0, -1, 0))).size(), "Ray crosses one sphere and the plane");
+        //TC03: Ray crosses one triangle (1 point)
+        assertEquals(1, hierarchy.findIntersections(new Ray(new Point(9.2, 3.2, 5), new Vector(0, 0, -1))).size(), "Ray crosses one triangle");
+        //TC04: Ray misses all the geometries
+        assertNull(hierarchy.findIntersections(new Ray(new Point(-5, 10, 0), new Vector(1, 0, 0))), "Ray misses all the geometries");
+        // =============== Boundary Values Tests ==================
+        //TC11: Ray crosses the spheres up to a maximum distance (7 points)
+        assertEquals(7, hierarchy.findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0)), 13).size(), "Ray crosses the spheres up to a maximum distance");
+    }
+
+    /**
+     * Test method for {@link Intersectable#findTransparency(Ray, double)}
+     */
+    @Test
+    void testFindTransparency() {
+        //three half transparent spheres and an opaque sphere behind them, as a list, a flat hierarchy and a grid
+        Geometries[] scenes = new Geometries[3];
+        for (int s = 0; s < 3; s++) {
+            scenes[s] = new Geometries();
+            for (int i = 0; i < 3; i++)
+                scenes[s].add(new Sphere(1d, new Point(i * 3, 0, 0)).setMaterial(new Material().setKt(0.5)));
+            scenes[s].add(new Sphere(1d, new Point(9, 0, 0)));
+        }
+        scenes[1].buildFlatBVH();
+        scenes[2].buildGrid();
+        Ray ray = new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0));
+        for (Geometries scene : scenes) {
+            // ============ Equivalence Partitions Tests ==============
+            //TC01: Ray crosses the transparent spheres (0.5 ^ 6)
+            assertEquals(new Double3(0.015625), scene.findTransparency(ray, 12), "Ray crosses the transparent spheres");
+            //TC02: Ray crosses the opaque sphere
+            assertSame(Double3.ZERO, scene.findTransparency(ray, 20), "Ray crosses the opaque sphere");
+            //TC03: Ray misses all the spheres
+            assertSame(Double3.ONE, scene.findTransparency(new Ray(new Point(-5, 5, 0), new Vector(1, 0, 0)), 20), "Ray misses all the spheres");
+            // =============== Boundary Values Tests ==================
+            //TC11: Ray ends before the first sphere
+            assertSame(Double3.ONE, scene.findTransparency(ray, 3), "Ray ends before the first sphere");
+            //TC12: Ray ends inside the first sphere (one of its two intersections)
+            assertEquals(new Double3(0.5), scene.findTransparency(ray, 5), "Ray ends inside the first sphere");
+        }
+    }
+
+    /**
+     * Test method for {@link Intersectable#findOccluder(Ray, double)}
+     */
+    @Test
+    void testFindOccluder() {
+        //a transparent sphere and two opaque spheres behind it, as a list, a hierarchy, a flat hierarchy and a grid
+        Geometries[] scenes = new Geometries[4];
+        for (int s = 0; s < 4; s++) {
+            scenes[s] = new Geometries(new Sphere(1d, new Point(0, 0, 0)).setMaterial(new Material().setKt(0.5)));
+            for (int i = 0; i < 2; i++)
+                scenes[s].add(new Sphere(1d, new Point(3 + i * 3, 0, 0)));
+        }
+        scenes[1].buildBVH();
+        scenes[2].buildFlatBVH();
+        scenes[3].buildGrid();
+        Ray ray = new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0));
+        for (Geometries scene : scenes) {
+            // ============ Equivalence Partitions Tests ==============
+            //TC01: Ray crosses the opaque spheres - one of them is found
+            Intersectable occluder = scene.findOccluder(ray, 20);
+            assertInstanceOf(Sphere.class, occluder, "Ray crosses the opaque spheres");
+            assertSame(Double3.ZERO, occluder.findTransparency(ray, 20), "Occluder does not block the ray");
+            //TC02: Ray crosses only the transparent sphere
+            assertNull(scene.findOccluder(ray, 6), "Ray crosses only the transparent sphere");
+            //TC03: Ray misses all the spheres
+            assertNull(scene.findOccluder(new Ray(new Point(-5, 5, 0), new Vector(1, 0, 0)), 20), "Ray misses all the spheres");
+            // =============== Boundary Values Tests ==================
+            //TC11: Ray ends inside the first opaque sphere
+            occluder = scene.findOccluder(ray, 8);
+            assertNotNull(occluder, "Ray ends inside the first opaque sphere");
+            assertSame(Double3.ZERO, occluder.findTransparency(ray, 8), "Occluder does not block the ray");
+        }
+    }
+
+    /**
+     * Test method for {@link Intersectable#findClosestGeoIntersection(Ray, double)}
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        //a plane, a grid of spheres and a row of triangles, as a list, a hierarchy, a flat hierarchy and a grid
+        Geometries[] scenes = new Geometries[4];
+        for (int s = 0; s < 4; s++) {
+            scenes[s] = new Geometries(new Plane(new Point(0, -5, 0), new Vector(0, 1, 0)));
+            for (int i = 0; i < 10; i++)
+                for (int j = 0; j < 10; j++)
+                    scenes[s].add(new Sphere(1d, new Point(i * 3, 0, j * 3)));
+            for (int i = 0; i < 10; i++)
+                scenes[s].add(new Triangle(new Point(i * 3, 3, 1), new Point(i * 3 + 1, 3, 1), new Point(i * 3, 4, 1)));
+        }
+        scenes[1].buildBVH();
+        scenes[2].buildFlatBVH();
+        scenes[3].buildGrid();
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The closest intersection is the closest of all the intersections
+        for (int i = 0; i < 30; i++) {
+            Ray ray = new Ray(new Point(i * 2 - 20, 15, 40), new Vector(0.1 * i - 1, -0.5, -1));
+            for (Geometries scene : scenes) {
+                GeoPoint expected = ray.findClosestGeoPoint(scene.findGeoIntersections(ray));
+                GeoPoint result = scene.findClosestGeoIntersection(ray);
+                assertEquals(expected, result, "Wrong closest intersection");
+                assertEquals(ray.getHead().distance(expected.point), result.distance, 1e-10, "Wrong distance");
+            }
+        }
+        //TC02: Ray misses all the geometries
+        for (Geometries scene : scenes)
+            assertNull(scene.findClosestGeoIntersection(new Ray(new Point(-5, 10, 0), new Vector(1, 0, 0))), "Ray misses all the geometries");
+        // =============== Boundary Values Tests ==================
+        //TC11: The closest intersection is farther than the maximum distance
+        for (Geometries scene : scenes)
+            assertNull(scene.findClosestGeoIntersection(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0)), 3), "The closest intersection is too far");
+    }
+
+    /**
+     * Test method for {@link Intersectable#intersect(Ray, Intersectable.Hit)}
+     */
+    @Test
+    void testIntersect() {
+        Ray ray = new Ray(new Point(6, 1.5, 0), new Vector(-1, 0, 0));
+        Intersectable.Hit hit = new Intersectable.Hit();
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The closest intersection is recorded (the sphere)
+        assertTrue(geometries.intersect(ray, hit.reset(Double.POSITIVE_INFINITY)), "No intersection found");
+        assertSame(sphere, hit.geometry, "Wrong geometry");
+        assertEquals(6 - (4 + Math.sqrt(0.75)), hit.t, 1e-10, "Wrong distance");
+        //TC02: A farther geometry does not replace the recorded intersection
+        double t = hit.t;
+        assertFalse(triangle.intersect(ray, hit), "Farther intersection recorded");
+        assertSame(sphere, hit.geometry, "Farther intersection replaced the closest");
+        assertEquals(t, hit.t, "Farther intersection changed the distance");
+        //TC03: Ray misses all the geometries
+        assertFalse(geometries.intersect(new Ray(new Point(0, 3, 0), new Vector(-4, -3, 0)), hit.reset(Double.POSITIVE_INFINITY)), "Ray misses all the geometries");
+        assertNull(hit.geometry, "Ray misses all the geometries");
+        // =============== Boundary Values Tests ==================
+        //TC11: The closest intersection is exactly on the maximum distance
+        assertTrue(sphere.intersect(ray, hit.reset(t)), "Intersection on the maximum distance");
+    }
+}
@@ -0,0 +1,139 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+
+import static geometries.Intersectable.GeoPoint;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link Instance}
+ *
+ * @author Elad and Amitay
+ */
+class InstanceTests {
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in
+     * assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    /**
+     * a unit sphere at the origin, shared by the instances
+     */
+    private final Sphere sphere = new Sphere(1, Point.ZERO);
+    /**
+     * the sphere scaled by 2 and moved to (5,0,0) - the same as a sphere of radius 2 around (5,0,0)
+     */
+    private final Instance instance = new Instance(sphere,
+            Transform.scaling(2).then(Transform.translation(new Vector(5, 0, 0))));
+
+    /**
+     * Test method for {@link Instance#calcBoundingBox()}
+     */
+    @Test
+    void testBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the box of the transformed sphere
+        BoundingBox box = instance.getBoundingBox();
+        assertEquals(3, box.minX, DELTA, "Wrong minimum of the box");
+        assertEquals(7, box.maxX, DELTA, "Wrong maximum of the box");
+        assertEquals(-2, box.minZ, DELTA, "Wrong minimum of the box");
+        // =============== Boundary Values Tests ==================
+        // TC11: instance of an unbounded geometry
+        assertTrue(new Instance(new Plane(Point.ZERO, Vector.Z), Transform.scaling(2)).getBoundingBox().isInfinite(),
+                "Instance of a plane is not unbounded");
+    }
+
+    /**
+     * Test method for {@link Instance#findGeoIntersectionsHelper(Ray, double)}
+     */
+    @Test
+    void testFindGeoIntersectionsHelper() {
+        Ray ray = new Ray(new Point(0, 1, 0), Vector.X);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the ray crosses the instance like it crosses the equivalent sphere
+        List<Point> result = instance.findIntersections(ray);
+        assertNotNull(result, "Ray crosses the instance");
+        assertEquals(new Sphere(2, new Point(5, 0, 0)).findIntersections(ray), result, "Wrong points");
+        // TC02: the normal is calculated in the space of the shared geometry
+        GeoPoint gp = instance.findGeoIntersections(ray).get(0);
+        assertSame(sphere, gp.geometry, "Wrong geometry");
+        assertEquals(gp.point.subtract(new Point(5, 0, 0)).normalize(), gp.getNormal(), "Wrong normal");
+        // TC03: the distance is measured in the space of the scene
+        assertEquals(1, instance.findIntersections(ray, 5).size(), "Wrong number of points up to the distance");
+        // TC04: the ray misses the instance but crosses the shared geometry
+        assertNull(instance.findGeoIntersections(new Ray(new Point(-3, 0, 0), Vector.Y)), "Ray misses the instance");
+    }
+
+    /**
+     * Test method for {@link Instance#intersectHelper(Ray, Intersectable.Hit)}
+     */
+    @Test
+    void testIntersect() {
+        Ray ray = new Ray(new Point(0, 1, 0), Vector.X);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the closest intersection and its distance in the space of the scene
+        GeoPoint closest = instance.findClosestGeoIntersection(ray);
+        assertEquals(5 - Math.sqrt(3), closest.distance, DELTA, "Wrong distance");
+        assertEquals(new Point(5 - Math.sqrt(3), 1, 0), closest.point, "Wrong point");
+        assertEquals(new Vector(-Math.sqrt(3), 1, 0).normalize(), closest.getNormal(), "Wrong normal");
+        // TC02: two instances of the same geometry - the closer is found
+        Instance farther = new Instance(sphere, Transform.translation(new Vector(10, 1, 0)));
+        GeoPoint result = new Geometries(farther, instance).findClosestGeoIntersection(ray);
+        assertEquals(closest.point, result.point, "Wrong closest instance");
+        assertEquals(closest.getNormal(), result.getNormal(), "Wrong normal of the closest instance");
+        // TC03: a geometry that is not transformed closer than an instance
+        Plane plane = new Plane(new Point(2, 0, 0), Vector.X);
+        result = new Geometries(instance, plane).findClosestGeoIntersection(ray);
+        assertSame(plane, result.geometry, "Wrong closest geometry");
+        assertEquals(Vector.X, result.getNormal(), "Transform of an instance kept for another geometry");
+        // TC04: nested instances combine their transforms
+        Instance nested = new Instance(new Instance(sphere, Transform.scaling(2)), Transform.translation(new Vector(5, 0, 0)));
+        result = nested.findClosestGeoIntersection(ray);
+        assertEquals(closest.point, result.point, "Wrong point of a nested instance");
+        assertEquals(closest.getNormal(), result.getNormal(), "Wrong normal of a nested instance");
+        // =============== Boundary Values Tests ==================
+        // TC11: the instance is farther than the maximum distance
+        assertNull(instance.findClosestGeoIntersection(ray, 3), "Instance is farther than the distance");
+        // TC12: the ray misses an instance scaled by 3 - the distance of the hit is kept exactly, although
+        // 3.1 scaled by 1/3 and back is not 3.1
+        Instance scaled = new Instance(sphere, Transform.scaling(3).then(Transform.translation(new Vector(10, 0, 0))));
+        Intersectable.Hit hit = Intersectable.Hit.get(3.1);
+        assertFalse(scaled.intersect(new Ray(new Point(8, 2.95, 2.95), Vector.X), hit), "Ray misses the instance");
+        assertEquals(3.1, hit.t, 0, "Distance of the hit changed by a missed instance");
+    }
+
+    /**
+     * Test method for {@link Instance#findTransparencyHelper(Ray, double)}
+     */
+    @Test
+    void testFindTransparency() {
+        Geometry glass = new Sphere(1, Point.ZERO).setMaterial(new Material().setKt(0.5));
+        Instance copy = new Instance(glass, Transform.scaling(2).then(Transform.translation(new Vector(5, 0, 0))));
+        Ray ray = new Ray(new Point(0, 1, 0), Vector.X);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: both intersections are closer than the distance
+        assertEquals(new Double3(0.25), copy.findTransparency(ray, 10), "Wrong transparency");
+        // TC02: one intersection is closer than the distance - the distance is measured in the space of the scene
+        assertEquals(new Double3(0.5), copy.findTransparency(ray, 5), "Wrong transparency up to the distance");
+    }
+
+    /**
+     * Test method for {@link Intersectable#findOccluder(Ray, double)}
+     */
+    @Test
+    void testFindOccluder() {
+        Geometry wall = new Sphere(1, Point.ZERO);
+        Instance copy = new Instance(wall, Transform.translation(new Vector(5, 0, 0)));
+        Geometries scene = new Geometries(copy);
+        Ray ray = new Ray(new Point(0, 0.5, 0), Vector.X);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the occluder is the instance, which is tested again with rays of the scene, and not its geometry
+        assertSame(copy, scene.findOccluder(ray, 10), "Wrong occluder");
+        // TC02: the ray ends before the instance
+        assertNull(scene.findOccluder(ray, 3), "Ray ends before the instance");
+    }
+}
@@ -0,0 +1,178 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static geometries.Intersectable.GeoPoint;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link TriangleMesh}
+ *
+ * @author Elad and Amitay
+ */
+class TriangleMeshTests {
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in
+     * assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    /**
+     * a unit square on the xy plane made of two faces
+     */
+    private final TriangleMesh square = new TriangleMesh(
+            new double[]{0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0},
+            new int[]{0, 1, 2, 0, 2, 3});
+
+    /**
+     * creates a grid of random heights over the xy plane, as a mesh and as separate triangles
+     *
+     * @param size   amount of cells in each row
+     * @param random the generator of the heights
+     * @return the mesh and the triangles
+     */
+    private static Intersectable[] terrain(int size, Random random) {
+        Point[] vertices = new Point[(size + 1) * (size + 1)];
+        for (int i = 0; i <= size; i++)
+            for (int j = 0; j <= size; j++)
+                vertices[i * (size + 1) + j] = new Point(i, j, random.nextDouble());
+        int[] faces = new int[6 * size * size];
+        Geometries triangles = new Geometries();
+        int k = 0;
+        for (int i = 0; i < size; i++)
+            for (int j = 0; j < size; j++) {
+                int a = i * (size + 1) + j, b = a + 1, c = a + size + 1, d = c + 1;
+                faces[k++] = a;
+                faces[k++] = c;
+                faces[k++] = d;
+                faces[k++] = a;
+                faces[k++] = d;
+                faces[k++] = b;
+                triangles.add(new Triangle(vertices[a], vertices[c], vertices[d]),
+                        new Triangle(vertices[a], vertices[d], vertices[b]));
+            }
+        return new Intersectable[]{new TriangleMesh(vertices, faces), triangles};
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#TriangleMesh(double[], int[])}
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: correct mesh
+        assertEquals(2, square.getFaceCount(), "Wrong amount of faces");
+        assertEquals(4, square.getVertexCount(), "Wrong amount of vertices");
+        // TC02: positions are not triads
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new double[]{0, 0, 0, 1}, new int[0]),
+                "Positions that are not triads are not allowed");
+        // TC03: faces are not triads
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1}),
+                "Faces that are not triads are not allowed");
+        // =============== Boundary Values Tests ==================
+        // TC11: vertex index right after the last vertex
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 3}),
+                "Vertex index out of range is not allowed");
+        // TC12: negative vertex index
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, -1}),
+                "Negative vertex index is not allowed");
+        // TC13: empty mesh
+        assertNull(new TriangleMesh(new double[0], new int[0]).findGeoIntersections(new Ray(new Point(0, 0, 1), new Vector(0, 0, -1))),
+                "Empty mesh has no intersections");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#getNormal(Point, int)}
+     */
+    @Test
+    void testGetNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: normal of the face of an intersection
+        GeoPoint gp = square.findClosestGeoIntersection(new Ray(new Point(0.2, 0.7, 1), new Vector(0, 0, -1)));
+        assertEquals(new Vector(0, 0, 1), gp.getNormal(), "Wrong normal of the intersected face");
+        // TC02: normal of a point without a face
+        assertThrows(IllegalArgumentException.class, () -> square.getNormal(new Point(0.7, 0.2, 0)),
+                "Normal of a point without a face");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findGeoIntersectionsHelper(Ray, double)}
+     */
+    @Test
+    void testFindGeoIntersectionsHelper() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the ray crosses one face
+        List<GeoPoint> result = square.findGeoIntersections(new Ray(new Point(0.7, 0.2, 1), new Vector(0, 0, -1)));
+        assertEquals(1, result.size(), "Wrong number of points");
+        assertEquals(new Point(0.7, 0.2, 0), result.get(0).point, "Wrong point");
+        assertSame(square, result.get(0).geometry, "Wrong geometry");
+        // TC02: the ray misses the mesh
+        assertNull(square.findGeoIntersections(new Ray(new Point(2, 0.2, 1), new Vector(0, 0, -1))), "Ray misses the mesh");
+        // TC03: the mesh is farther than the distance
+        assertNull(square.findGeoIntersections(new Ray(new Point(0.7, 0.2, 1), new Vector(0, 0, -1)), 0.5),
+                "Mesh is farther than the distance");
+        // TC04: random rays give the same intersections as separate triangles
+        Random random = new Random(5);
+        Intersectable[] terrain = terrain(20, random);
+        Comparator<GeoPoint> byZ = Comparator.comparingDouble(gp -> gp.point.getZ());
+        for (int i = 0; i < 500; i++) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 20, random.nextDouble() * 20, 2),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            List<GeoPoint> meshResult = terrain[0].findGeoIntersections(ray);
+            List<GeoPoint> trianglesResult = terrain[1].findGeoIntersections(ray);
+            if (trianglesResult == null) {
+                assertNull(meshResult, "Mesh has intersections the triangles do not");
+                continue;
+            }
+            assertEquals(trianglesResult.size(), meshResult.size(), "Wrong number of points");
+            meshResult.sort(byZ);
+            trianglesResult.sort(byZ);
+            for (int j = 0; j < meshResult.size(); j++)
+                assertEquals(trianglesResult.get(j).point, meshResult.get(j).point, "Wrong point");
+        }
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#intersectHelper(Ray, Intersectable.Hit)}
+     */
+    @Test
+    void testIntersect() {
+        Intersectable.Hit hit = new Intersectable.Hit();
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the ray crosses the second face
+        assertTrue(square.intersect(new Ray(new Point(0.2, 0.7, 1), new Vector(0, 0, -1)), hit.reset(Double.POSITIVE_INFINITY)),
+                "Ray crosses the mesh");
+        assertSame(square, hit.geometry, "Wrong geometry");
+        assertEquals(1, hit.t, DELTA, "Wrong distance");
+        assertTrue(hit.primitive >= 0, "Face of the intersection is not recorded");
+        // TC02: closer intersection is already recorded
+        assertFalse(square.intersect(new Ray(new Point(0.2, 0.7, 1), new Vector(0, 0, -1)), hit.reset(0.5)),
+                "Closer intersection is already recorded");
+        // TC03: random rays give the same closest intersection as separate triangles
+        Random random = new Random(7);
+        Intersectable[] terrain = terrain(20, random);
+        for (int i = 0; i < 500; i++) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 20, random.nextDouble() * 20, 2),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            GeoPoint meshResult = terrain[0].findClosestGeoIntersection(ray);
+            GeoPoint trianglesResult = terrain[1].findClosestGeoIntersection(ray);
+            if (trianglesResult == null) {
+                assertNull(meshResult, "Mesh has an intersection the triangles do not");
+                continue;
+            }
+            assertEquals(trianglesResult.point, meshResult.point, "Wrong closest point");
+            assertEquals(trianglesResult.getNormal(), meshResult.getNormal(), "Wrong normal of the closest point");
+        }
+        // =============== Boundary Values Tests ==================
+        // TC11: the ray crosses the edge shared by the faces
+        assertFalse(square.intersect(new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1)), hit.reset(Double.POSITIVE_INFINITY)),
+                "Ray crosses the shared edge");
+    }
+}
@@ -85,4 +85,35 @@ class TriangleTests {
         assertEquals(1, result2.size(),"Wrong number of points");
         assertEquals(List.of(p0_70_70), result2,"Point is on distance");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link Triangle#intersectHelper(Ray, Intersectable.Hit)}
+     */
+    @Test
+    void testIntersect() {
+        Triangle triangle = new Triangle(new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0));
+        Intersectable.Hit hit = new Intersectable.Hit();
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Point is inside the triangle - distance and barycentric coordinates
+        assertTrue(triangle.intersect(new Ray(new Point(0.2, 0.3, 1), new Vector(0, 0, -1)), hit.reset(Double.POSITIVE_INFINITY)), "Point is inside the triangle");
+        assertSame(triangle, hit.geometry, "Wrong geometry");
+        assertEquals(1, hit.t, DELTA, "Wrong distance");
+        assertEquals(0.2, hit.u, DELTA, "Wrong barycentric coordinate of the second vertex");
+        assertEquals(0.3, hit.v, DELTA, "Wrong barycentric coordinate of the third vertex");
+        // TC02: Point is outside the triangle
+        assertFalse(triangle.intersect(new Ray(new Point(0.8, 0.3, 1), new Vector(0, 0, -1)), hit.reset(Double.POSITIVE_INFINITY)), "Point is outside the triangle");
+        // TC03: Triangle is behind the ray
+        assertFalse(triangle.intersect(new Ray(new Point(0.2, 0.3, 1), new Vector(0, 0, 1)), hit.reset(Double.POSITIVE_INFINITY)), "Triangle is behind the ray");
+        // TC04: Small triangle crossed at a grazing angle
+        Triangle small = new Triangle(new Point(0, 0, 0), new Point(1e-5, 0, 0), new Point(0, 1e-5, 0));
+        assertTrue(small.intersect(new Ray(new Point(2e-6 - 1, 3e-6, -0.005), new Vector(1, 0, 0.005)), hit.reset(Double.POSITIVE_INFINITY)),
+                "Small triangle crossed at a grazing angle");
+        assertEquals(0.2, hit.u, 1e-6, "Wrong barycentric coordinate of the second vertex");
+        assertEquals(0.3, hit.v, 1e-6, "Wrong barycentric coordinate of the third vertex");
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray is parallel to the triangle
+        assertFalse(triangle.intersect(new Ray(new Point(-1, 0.3, 0), new Vector(1, 0, 0)), hit.reset(Double.POSITIVE_INFINITY)), "Ray is parallel to the triangle");
+        // TC12: Point is on the edge between the second and the third vertices
+        assertFalse(triangle.intersect(new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1)), hit.reset(Double.POSITIVE_INFINITY)), "Point is on edge");
+    }
+}
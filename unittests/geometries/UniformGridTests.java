@@ -0,0 +1,100 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link UniformGrid}
+ *
+ * @author Elad and Amitay
+ */
+class UniformGridTests {
+
+    /**
+     * creates geometries of a block of small spheres, a big sphere around part of them and a plane
+     *
+     * @return the geometries
+     */
+    private Geometries geometries() {
+        Geometries geometries = new Geometries(new Plane(new Point(0, -5, 0), new Vector(0, 1, 0)));
+        for (int x = 0; x < 10; x++)
+            for (int y = 0; y < 10; y++)
+                geometries.add(new Sphere(0.5, new Point(x * 2, y * 2, 0)));
+        geometries.add(new Sphere(30d, new Point(60, 0, 0)),
+                new Triangle(new Point(0, 0, 3), new Point(18, 0, 3), new Point(0, 18, 3)));
+        return geometries;
+    }
+
+    /**
+     * Test method for {@link UniformGrid#findGeoIntersectionsHelper(Ray, double)}
+     */
+    @Test
+    void testFindGeoIntersectionsHelper() {
+        UniformGrid grid = new UniformGrid(geometries());
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Ray crosses a row of spheres and the big sphere (20 + 2 points)
+        assertEquals(22, grid.findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0))).size(), "Ray crosses a row of spheres");
+        //TC02: Ray crosses the triangle and one sphere (3 points)
+        assertEquals(3, grid.findIntersections(new Ray(new Point(4, 4, 10), new Vector(0, 0, -1))).size(), "Ray crosses the triangle and one sphere");
+        //TC03: Ray misses the grid and crosses the plane (1 point)
+        assertEquals(1, grid.findIntersections(new Ray(new Point(-100, 10, 100), new Vector(0, -1, 0))).size(), "Ray crosses only the plane");
+        //TC04: Ray starts inside the big sphere, goes along it (1 point)
+        assertEquals(1, grid.findIntersections(new Ray(new Point(60, 0, 5), new Vector(0, 0, 1))).size(), "Ray starts inside the big sphere");
+        // =============== Boundary Values Tests ==================
+        //TC11: Ray crosses the spheres up to a maximum distance (4 points)
+        assertEquals(4, grid.findIntersections(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), 4).size(), "Ray crosses the spheres up to a maximum distance");
+        //TC12: Empty geometries
+        assertNull(new UniformGrid(new Geometries()).findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0))), "Empty geometries");
+    }
+
+    /**
+     * Test method for {@link UniformGrid#UniformGrid(Geometries)}
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The resolution grows with the amount of geometries
+        int[] small = new UniformGrid(new Geometries(new Sphere(1d, new Point(0, 0, 0)))).getResolution();
+        int[] big = new UniformGrid(geometries()).getResolution();
+        assertTrue(small[0] * small[1] * small[2] < big[0] * big[1] * big[2], "Resolution does not grow with the geometries");
+        // =============== Boundary Values Tests ==================
+        //TC11: Flat scene has one voxel on its flat axis
+        Geometries flat = new Geometries();
+        for (int i = 0; i < 20; i++)
+            flat.add(new Triangle(new Point(i, 0, 0), new Point(i + 1, 0, 0), new Point(i, 1, 0)));
+        int[] resolution = new UniformGrid(flat).getResolution();
+        assertEquals(1, resolution[2], "Flat scene has more than one voxel on its flat axis");
+        //TC12: Flat scene has about DENSITY voxels for every geometry on its other axes (3 * 20 in 20 x 1)
+        assertEquals(60, resolution[0] * resolution[1], 20, "Flat scene has too few voxels");
+        //TC13: Long thin scene has about DENSITY voxels for every geometry (3 * 40 in 80 x 1 x 1)
+        Geometries row = new Geometries();
+        for (int i = 0; i < 40; i++)
+            row.add(new Sphere(0.5, new Point(i * 2, 0, 0)));
+        resolution = new UniformGrid(row).getResolution();
+        assertTrue(resolution[0] * resolution[1] * resolution[2] > 60, "Long scene has too few voxels");
+    }
+
+    /**
+     * Test method for {@link Geometries#buildGrid()}
+     */
+    @Test
+    void testBuildGrid() {
+        Geometries list = geometries();
+        Geometries compiled = geometries();
+        compiled.buildGrid();
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The grid finds the same intersections as the list, every intersection once
+        for (int i = 0; i < 30; i++) {
+            Ray ray = new Ray(new Point(i * 3 - 20, 25, 20), new Vector(0.2 * i - 1, -1, -1.5));
+            var expected = list.findIntersections(ray);
+            var result = compiled.findIntersections(ray);
+            assertEquals(expected == null ? 0 : expected.size(), result == null ? 0 : result.size(), "Wrong amount of intersections");
+            if (expected != null)
+                assertTrue(result.containsAll(expected), "Wrong intersections");
+        }
+    }
+}
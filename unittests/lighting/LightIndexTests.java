@@ -0,0 +1,72 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link LightIndex}
+ *
+ * @author Elad and Amitay
+ */
+class LightIndexTests {
+
+    /**
+     * Test method for {@link LightIndex#getLights(Point)}
+     */
+    @Test
+    void testGetLights() {
+        Random random = new Random(5);
+        List<LightSource> lights = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Point position = new Point(random.nextDouble() * 1000, random.nextDouble() * 1000, random.nextDouble() * 200);
+            Color intensity = new Color(random.nextDouble() * 500, random.nextDouble() * 500, random.nextDouble() * 500);
+            lights.add(i % 3 == 0
+                    ? new SpotLight(intensity, position, new Vector(0, 0, -1)).setKl(0.001).setKq(0.0002)
+                    : new PointLight(intensity, position).setKl(random.nextDouble() * 0.01).setKq(random.nextDouble() * 0.001));
+        }
+        DirectionalLight sun = new DirectionalLight(new Color(100, 100, 100), new Vector(1, 1, -1));
+        PointLight unattenuated = new PointLight(new Color(50, 50, 50), new Point(500, 500, 500));
+        PointLight weak = new PointLight(new Color(0.5, 0.5, 0.5), new Point(500, 500, 100));
+        lights.add(sun);
+        lights.add(unattenuated);
+        lights.add(weak);
+        LightIndex index = new LightIndex(lights, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the lights of every point are exactly the lights brighter than the threshold there
+        for (int i = 0; i < 1000; i++) {
+            Point point = new Point(random.nextDouble() * 1400 - 200, random.nextDouble() * 1400 - 200, random.nextDouble() * 600 - 200);
+            HashSet<LightSource> found = new HashSet<>(index.getLights(point));
+            for (LightSource light : lights) {
+                if (light instanceof SpotLight)//the index bounds spot lights like point lights
+                    continue;
+                Color color = light.getIntensity(point);
+                boolean bright = Math.max(color.getRed(), Math.max(color.getGreen(), color.getBlue())) > 1;
+                assertEquals(bright, found.contains(light), "Wrong light at " + point);
+            }
+        }
+        // TC02: lights that reach every point are always found, lights below the threshold never
+        List<LightSource> far = index.getLights(new Point(1e6, 1e6, 1e6));
+        assertTrue(far.contains(sun) && far.contains(unattenuated), "Light that reaches every point is missing");
+        assertEquals(2, far.size(), "Wrong lights far from all the lights");
+        assertFalse(index.getLights(weak.getPosition()).contains(weak), "Light below the threshold was found");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: no lights
+        assertTrue(new LightIndex(List.of(), 1).getLights(Point.ZERO).isEmpty(), "Lights found without lights");
+        // TC12: a single light, whose sphere is the whole grid
+        PointLight single = new PointLight(new Color(100, 100, 100), Point.ZERO).setKq(1);
+        LightIndex singleIndex = new LightIndex(List.of(single), 1);
+        assertEquals(List.of(single), singleIndex.getLights(new Point(9, 0, 0)), "Light inside its radius was not found");
+        assertTrue(singleIndex.getLights(new Point(11, 0, 0)).isEmpty(), "Light outside its radius was found");
+    }
+}
@@ -0,0 +1,46 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link PointLight}
+ *
+ * @author Elad and Amitay
+ */
+class PointLightTests {
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in
+     * assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    /**
+     * Test method for {@link PointLight#getInfluenceRadius(double)}
+     */
+    @Test
+    void testGetInfluenceRadius() {
+        Color intensity = new Color(100, 300, 200);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: quadratic attenuation - the brightest component reaches the threshold at the radius
+        PointLight light = new PointLight(intensity, Point.ZERO).setKc(1).setKl(0.5).setKq(0.01);
+        double radius = light.getInfluenceRadius(2);
+        assertEquals(2, light.getIntensity(new Point(radius, 0, 0)).getGreen(), DELTA, "Wrong radius of quadratic attenuation");
+        // TC02: linear attenuation
+        light = new PointLight(intensity, Point.ZERO).setKl(0.1);
+        assertEquals(1490, light.getInfluenceRadius(2), DELTA, "Wrong radius of linear attenuation");
+        // TC03: no attenuation reaches every point, and so does a directional light
+        assertEquals(Double.POSITIVE_INFINITY, new PointLight(intensity, Point.ZERO).getInfluenceRadius(2),
+                "Light without attenuation does not reach every point");
+        assertEquals(Double.POSITIVE_INFINITY, new DirectionalLight(intensity, new Vector(1, 0, 0)).getInfluenceRadius(2),
+                "Directional light does not reach every point");
+        // =============== Boundary Values Tests ==================
+        // TC11: light that is not brighter than the threshold even at its position
+        assertEquals(0, new PointLight(intensity, Point.ZERO).setKc(150).setKq(1).getInfluenceRadius(2), DELTA,
+                "Light below the threshold has a radius");
+    }
+}
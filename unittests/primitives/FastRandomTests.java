@@ -0,0 +1,61 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link FastRandom}
+ * @author Elad and Amitay
+ */
+public class FastRandomTests {
+
+    /**
+     * Test method for {@link FastRandom#nextDouble()} and {@link FastRandom#nextInt(int)}
+     */
+    @Test
+    void testNext() {
+        FastRandom random = new FastRandom(7);
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: the numbers are in range and spread evenly
+        int[] counts = new int[10];
+        double sum = 0;
+        for (int i = 0; i < 100000; i++) {
+            double value = random.nextDouble();
+            assertTrue(value >= 0 && value < 1, "ERROR: double out of range");
+            sum += value;
+            counts[random.nextInt(10)]++;
+        }
+        assertEquals(0.5, sum / 100000, 0.01, "ERROR: doubles are not uniform");
+        for (int count : counts)
+            assertEquals(10000, count, 500, "ERROR: ints are not uniform");
+        // =============== Boundary Values Tests ==================
+        //TC11: bound of 1
+        assertEquals(0, random.nextInt(1), "ERROR: int out of range");
+    }
+
+    /**
+     * Test method for {@link FastRandom#setSeed(long)}
+     */
+    @Test
+    void testSetSeed() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: the same seed gives the same numbers
+        FastRandom random = new FastRandom(42);
+        long first = random.nextLong(), second = random.nextLong();
+        assertNotEquals(first, second, "ERROR: the same number twice");
+        random.setSeed(42);
+        assertEquals(first, random.nextLong(), "ERROR: seeding again does not repeat the numbers");
+        assertEquals(second, random.nextLong(), "ERROR: seeding again does not repeat the numbers");
+        //TC02: close seeds give unrelated numbers
+        assertNotEquals(new FastRandom(FastRandom.mix(1)).nextInt(16), new FastRandom(FastRandom.mix(2)).nextInt(16),
+                "ERROR: close seeds give the same numbers");
+        //TC03: every thread has its own generator
+        FastRandom[] other = new FastRandom[1];
+        Thread thread = new Thread(() -> other[0] = FastRandom.current());
+        thread.start();
+        assertDoesNotThrow(() -> thread.join());
+        assertSame(FastRandom.current(), FastRandom.current(), "ERROR: thread has several generators");
+        assertNotSame(FastRandom.current(), other[0], "ERROR: threads share a generator");
+    }
+}
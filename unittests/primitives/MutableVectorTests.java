@@ -0,0 +1,59 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link MutableVector}
+ * @author Elad and Amitay
+ */
+public class MutableVectorTests {
+
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in
+     * assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    /**
+     * Test method for {@link MutableVector#add(Point)}, {@link MutableVector#subtract(Point)}
+     * and {@link MutableVector#addScaled(Vector, double)}
+     */
+    @Test
+    void testAddSubtract() {
+        Vector v = new Vector(1, 2, 3);
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: the results are the same as the immutable operations
+        assertEquals(v.add(new Vector(-2, -4, -5)), new MutableVector(v).add(new Vector(-2, -4, -5)).toVector(), "ERROR: add does not work correctly");
+        assertEquals(v.subtract(new Point(-2, -4, -6)), new MutableVector(v).subtract(new Point(-2, -4, -6)).toVector(), "ERROR: subtract does not work correctly");
+        assertEquals(v.add(Vector.X.scale(3)), new MutableVector(v).addScaled(Vector.X, 3).toVector(), "ERROR: addScaled does not work correctly");
+        //TC02: the operations change the vector itself
+        MutableVector mutable = new MutableVector(v);
+        assertSame(mutable, mutable.add(v).scale(2), "ERROR: operation created a new vector");
+        assertEquals(new Vector(4, 8, 12), mutable.toVector(), "ERROR: operation did not change the vector");
+        // =============== Boundary Values Tests ==================
+        //TC11: the zero vector is allowed, but can not become an immutable vector
+        MutableVector zero = assertDoesNotThrow(() -> new MutableVector(v).subtract(v), "ERROR: Vector - itself throws an exception");
+        assertEquals(0, zero.lengthSquared(), DELTA, "ERROR: Vector - itself is not zero");
+        assertThrows(IllegalArgumentException.class, zero::toVector, "ERROR: zero vector converted to a vector");
+    }
+
+    /**
+     * Test method for {@link MutableVector#dotProduct(Vector)} and {@link MutableVector#crossProduct(MutableVector)}
+     */
+    @Test
+    void testProducts() {
+        Vector v1 = new Vector(1, 2, 3);
+        Vector v2 = new Vector(-2, 1, 4);
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: the results are the same as the immutable operations
+        assertEquals(v1.dotProduct(v2), new MutableVector(v1).dotProduct(v2), DELTA, "ERROR: dotProduct() wrong value");
+        assertEquals(v1.crossProduct(v2), new MutableVector(v1).crossProduct(new MutableVector(v2)).toVector(), "ERROR: crossProduct() wrong value");
+        //TC02: normalizing gives the immutable unit vector
+        assertEquals(v1.normalize(), new MutableVector(v1).normalize().toVector(), "ERROR: normalize() wrong value");
+        // =============== Boundary Values Tests ==================
+        //TC11: cross product of parallel vectors is the zero vector
+        assertEquals(0, new MutableVector(v1).crossProduct(new MutableVector(v1).scale(2)).length(), DELTA, "ERROR: crossProduct() of parallel vectors is not zero");
+    }
+}
@@ -0,0 +1,89 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link Transform}
+ * @author Elad and Amitay
+ */
+public class TransformTests {
+
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in
+     * assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    /**
+     * Test method for {@link Transform#transformPoint(Point)} and {@link Transform#transformVector(Vector)}
+     */
+    @Test
+    void testTransform() {
+        Point p = new Point(1, 2, 3);
+        Vector v = new Vector(1, 2, 3);
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: translation moves points but not vectors
+        Transform translation = Transform.translation(new Vector(1, -1, 2));
+        assertEquals(new Point(2, 1, 5), translation.transformPoint(p), "ERROR: translation of a point is wrong");
+        assertEquals(v, translation.transformVector(v), "ERROR: translation changed a vector");
+        //TC02: scaling
+        Transform scaling = Transform.scaling(2, 3, 4);
+        assertEquals(new Point(2, 6, 12), scaling.transformPoint(p), "ERROR: scaling of a point is wrong");
+        assertEquals(new Vector(2, 6, 12), scaling.transformVector(v), "ERROR: scaling of a vector is wrong");
+        //TC03: rotation of 90 degrees around the z axis
+        Transform rotation = Transform.rotation(Vector.Z, 90);
+        assertEquals(new Point(-2, 1, 3), rotation.transformPoint(p), "ERROR: rotation of a point is wrong");
+        assertEquals(v.length(), rotation.transformVector(v).length(), DELTA, "ERROR: rotation changed the length of a vector");
+        //TC04: combined transform applies the first transform first
+        assertEquals(new Point(3, 5, 14), scaling.then(translation).transformPoint(p), "ERROR: combined transform is wrong");
+        assertEquals(new Point(4, 3, 20), translation.then(scaling).transformPoint(p), "ERROR: combined transform is wrong");
+        //TC05: general matrix
+        Transform matrix = Transform.of(1, 2, 0, 1, 0, 1, 0, 2, 1, 0, 1, 3);
+        assertEquals(new Point(6, 4, 7), matrix.transformPoint(p), "ERROR: transform of a general matrix is wrong");
+        // =============== Boundary Values Tests ==================
+        //TC11: identity
+        assertEquals(p, Transform.IDENTITY.transformPoint(p), "ERROR: identity changed a point");
+        //TC12: transforms that can not be inverted
+        assertThrows(IllegalArgumentException.class, () -> Transform.scaling(1, 0, 1), "ERROR: zero scale is allowed");
+        assertThrows(IllegalArgumentException.class, () -> Transform.of(1, 2, 3, 0, 2, 4, 6, 0, 0, 0, 1, 0), "ERROR: singular matrix is allowed");
+        assertThrows(IllegalArgumentException.class, () -> Transform.of(1, 0, 0, 0), "ERROR: matrix of a wrong size is allowed");
+    }
+
+    /**
+     * Test method for {@link Transform#inversePoint(Point)}, {@link Transform#inverseVector(Vector)}
+     * and {@link Transform#inverse()}
+     */
+    @Test
+    void testInverse() {
+        Point p = new Point(1, 2, 3);
+        Vector v = new Vector(-1, 0.5, 2);
+        Transform transform = Transform.scaling(2, 3, 4)
+                .then(Transform.rotation(new Vector(1, 1, 0), 30))
+                .then(Transform.translation(new Vector(5, -2, 1)));
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: the inverse undoes the transform
+        assertEquals(p, transform.inversePoint(transform.transformPoint(p)), "ERROR: inverse of a point is wrong");
+        assertEquals(v, transform.inverseVector(transform.transformVector(v)), "ERROR: inverse of a vector is wrong");
+        assertEquals(p, transform.inverse().transformPoint(transform.transformPoint(p)), "ERROR: inverse transform is wrong");
+        //TC02: the inverse of a general matrix
+        Transform matrix = Transform.of(1, 2, 0, 1, 0, 1, 0, 2, 1, 0, 1, 3);
+        assertEquals(p, matrix.inversePoint(matrix.transformPoint(p)), "ERROR: inverse of a general matrix is wrong");
+    }
+
+    /**
+     * Test method for {@link Transform#transformNormal(Vector)}
+     */
+    @Test
+    void testTransformNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: the normal stays orthogonal to the transformed surface
+        Transform transform = Transform.scaling(1, 4, 1).then(Transform.rotation(Vector.Z, 20));
+        Vector tangent = new Vector(1, -1, 0);
+        Vector normal = new Vector(1, 1, 0).normalize();
+        Vector result = transform.transformNormal(normal);
+        assertEquals(1, result.length(), DELTA, "ERROR: transformed normal is not a unit vector");
+        assertEquals(0, result.dotProduct(transform.transformVector(tangent)), DELTA, "ERROR: transformed normal is not orthogonal to the surface");
+    }
+}
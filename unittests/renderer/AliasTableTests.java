@@ -0,0 +1,46 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.FastRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link AliasTable}
+ *
+ * @author Elad and Amitay
+ */
+class AliasTableTests {
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in
+     * assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    /**
+     * Test method for {@link AliasTable#sample(FastRandom)}
+     */
+    @Test
+    void testSample() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the indexes are chosen in proportion to their weights
+        double[] weights = {1, 0, 5, 2, 0.5, 1.5};
+        AliasTable table = new AliasTable(weights);
+        FastRandom random = new FastRandom(3);
+        int[] counts = new int[weights.length];
+        final int SAMPLES = 200000;
+        for (int i = 0; i < SAMPLES; i++)
+            counts[table.sample(random)]++;
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(weights[i] / 10, table.getProbability(i), DELTA, "Wrong probability");
+            assertEquals(weights[i] / 10, (double) counts[i] / SAMPLES, 0.005, "Wrong frequency");
+        }
+        // =============== Boundary Values Tests ==================
+        // TC11: index of weight 0 is never chosen
+        assertEquals(0, counts[1], "Index of weight 0 was chosen");
+        // TC12: a single index
+        assertEquals(0, new AliasTable(new double[]{3}).sample(random), "Wrong index");
+        // TC13: all the weights are 0
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[]{0, 0}), "Table without weights");
+    }
+}
@@ -1,9 +1,16 @@
 package renderer;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
 import primitives.*;
 import renderer.*;
 import scene.Scene;
@@ -64,4 +71,130 @@ class CameraTest {
 
    }
 
+   /**
+    * image writer that keeps the written colors, so renderings can be compared
+    */
+   private static class RecordingImageWriter extends ImageWriter {
+      /** the written colors, by pixel */
+      final Color[] pixels;
+
+      RecordingImageWriter(int nX, int nY) {
+         super("Test", nX, nY);
+         pixels = new Color[nX * nY];
+      }
+
+      @Override
+      public void writePixel(int xIndex, int yIndex, Color color) {
+         pixels[yIndex * getNx() + xIndex] = color;
+      }
+   }
+
+   /**
+    * renders a small scene with a camera
+    * @param  renderMode   the render mode
+    * @param  threadsCount the amount of threads
+    * @param  renderings   amount of times the same camera renders the image
+    * @return              the colors of the last rendering
+    */
+   private Color[] render(Camera.RenderMode renderMode, int threadsCount, int renderings) {
+      return render(renderMode, threadsCount, renderings, 0);
+   }
+
+   /**
+    * renders a small scene with a camera, with a sphere that casts a shadow on a plane
+    * @param  renderMode   the render mode
+    * @param  threadsCount the amount of threads
+    * @param  renderings   amount of times the same camera renders the image
+    * @param  lightRadius  the radius of the light, for soft shadows
+    * @return              the colors of the last rendering
+    */
+   private Color[] render(Camera.RenderMode renderMode, int threadsCount, int renderings, double lightRadius) {
+      Scene scene = new Scene("Test").setBackground(new Color(20, 30, 40));
+      scene.geometries.add(new Sphere(3, new Point(0, 0, -20)).setEmission(new Color(50, 0, 0))
+         .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(20)));
+      if (lightRadius != 0)
+         scene.geometries.add(new Plane(new Point(0, 0, -30), new Vector(0, 0, 1)).setEmission(new Color(20, 20, 20))
+            .setMaterial(new Material().setKd(0.5)));
+      scene.lights.add(new PointLight(new Color(400, 400, 400), new Point(5, 5, 0)).setRadius(lightRadius));
+      RecordingImageWriter imageWriter = new RecordingImageWriter(30, 20);
+      Camera camera = cameraBuilder.setVpSize(15, 10).setImageWriter(imageWriter)
+         .setRayTracer(new SimpleRayTracer(scene)).setRenderMode(renderMode)
+         .setThreadsCount(threadsCount).setTileSize(4).setPrintInterval(0).build();
+      for (int i = 0; i < renderings; i++) {
+         Arrays.fill(imageWriter.pixels, null);
+         camera.renderImage();
+      }
+      return imageWriter.pixels;
+   }
+
+   /**
+    * Test method for
+    * {@link renderer.Camera#renderImage()}.
+    */
+   @Test
+   void testRenderImage() {
+      Color[] expected = render(Camera.RenderMode.THREADS, 0, 1);
+      // ============ Equivalence Partitions Tests ==============
+      // EP01: threads give the same image as a single thread
+      assertArrayEquals(expected, render(Camera.RenderMode.THREADS, 3, 1), "Wrong image rendered by threads");
+      // EP02: fork-join pool gives the same image as a single thread
+      assertArrayEquals(expected, render(Camera.RenderMode.FORK_JOIN, 3, 1), "Wrong image rendered by fork-join");
+      // EP03: virtual threads give the same image as a single thread
+      assertArrayEquals(expected, render(Camera.RenderMode.VIRTUAL_THREADS, 3, 1), "Wrong image rendered by virtual threads");
+
+      // =============== Boundary Values Tests ==================
+      // BV01: the same camera renders the whole image again
+      assertArrayEquals(expected, render(Camera.RenderMode.THREADS, 3, 2), "Threads camera can not be reused");
+      assertArrayEquals(expected, render(Camera.RenderMode.FORK_JOIN, 3, 3), "Fork-join camera can not be reused");
+      assertArrayEquals(expected, render(Camera.RenderMode.VIRTUAL_THREADS, 3, 2), "Virtual threads camera can not be reused");
+   }
+
+   /**
+    * Test method for
+    * {@link renderer.Camera#renderImage()} with adaptive super sampling.
+    */
+   @Test
+   void testRenderImageAdaptiveSuperSampling() {
+      cameraBuilder.antiAliasing().setAmountOfSamples(5);
+      Color[] expected = render(Camera.RenderMode.THREADS, 0, 1);
+      // ============ Equivalence Partitions Tests ==============
+      // EP01: samples shared between pixels give the same image in every render mode
+      assertArrayEquals(expected, render(Camera.RenderMode.THREADS, 3, 1), "Wrong image rendered by threads");
+      assertArrayEquals(expected, render(Camera.RenderMode.VIRTUAL_THREADS, 3, 1), "Wrong image rendered by virtual threads");
+      // EP02: pixel far from the sphere has the color of the background
+      assertEquals(new Color(20, 30, 40), expected[0], "Wrong color of the background");
+
+      // =============== Boundary Values Tests ==================
+      // BV01: samples of a previous rendering are not reused
+      assertArrayEquals(expected, render(Camera.RenderMode.THREADS, 0, 2), "Samples of a previous rendering were reused");
+   }
+
+   /**
+    * Test method for
+    * {@link renderer.Camera#renderImage()} with random samples.
+    */
+   @Test
+   void testRenderImageSeed() {
+      cameraBuilder.setAmountOfSamples(3);
+      Color[] expected = render(Camera.RenderMode.THREADS, 0, 1, 2);
+      // ============ Equivalence Partitions Tests ==============
+      // EP01: random soft shadow samples give the same image in every render mode
+      assertArrayEquals(expected, render(Camera.RenderMode.THREADS, 3, 1, 2), "Wrong image rendered by threads");
+      assertArrayEquals(expected, render(Camera.RenderMode.FORK_JOIN, 3, 2, 2), "Wrong image rendered by fork-join");
+      assertArrayEquals(expected, render(Camera.RenderMode.VIRTUAL_THREADS, 3, 1, 2), "Wrong image rendered by virtual threads");
+      // EP02: another seed gives other samples
+      cameraBuilder.setSeed(1);
+      assertFalse(Arrays.equals(expected, render(Camera.RenderMode.THREADS, 0, 1, 2)), "Seed does not change the samples");
+
+      // EP03: samples of adaptive anti-aliasing shared between pixels give the same image in every render mode
+      cameraBuilder.setSeed(0).antiAliasing();
+      Color[] antiAliased = render(Camera.RenderMode.THREADS, 0, 1, 2);
+      assertArrayEquals(antiAliased, render(Camera.RenderMode.THREADS, 3, 1, 2), "Wrong image rendered by threads");
+      assertArrayEquals(antiAliased, render(Camera.RenderMode.FORK_JOIN, 3, 2, 2), "Wrong image rendered by fork-join");
+
+      // =============== Boundary Values Tests ==================
+      // BV01: the pixels of the tiles are rendered in another order, so shared samples are reached from other pixels
+      cameraBuilder.hilbertTileOrder();
+      assertArrayEquals(antiAliased, render(Camera.RenderMode.THREADS, 2, 1, 2), "Image depends on the order of the pixels");
+   }
 }
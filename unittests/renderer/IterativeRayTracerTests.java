@@ -0,0 +1,109 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link IterativeRayTracer}
+ *
+ * @author Elad and Amitay
+ */
+class IterativeRayTracerTests {
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in
+     * assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    /**
+     * traces a grid of rays from a point with both tracers and compares the colors
+     *
+     * @param scene           the scene
+     * @param from            the head of the rays
+     * @param amountOfSamples the amount of samples for soft shadows
+     * @param threshold       the threshold of russian roulette of both tracers, 0 for no russian roulette
+     */
+    private void assertSameColors(Scene scene, Point from, int amountOfSamples, double threshold) {
+        RayTracerBase recursive = new SimpleRayTracer(scene).setRussianRoulette(threshold),
+                iterative = new IterativeRayTracer(scene).setRussianRoulette(threshold);
+        for (int i = -10; i <= 10; i++)
+            for (int j = -10; j <= 10; j++) {
+                Ray ray = new Ray(from, new Point(i * 100, j * 100, -1000).subtract(from));
+                //both tracers take the same random samples
+                FastRandom.current().setSeed(i * 31 + j);
+                Color expected = recursive.traceRay(ray, amountOfSamples);
+                FastRandom.current().setSeed(i * 31 + j);
+                Color color = iterative.traceRay(ray, amountOfSamples);
+                assertEquals(expected.getRed(), color.getRed(), DELTA, "Wrong red of ray " + i + "," + j);
+                assertEquals(expected.getGreen(), color.getGreen(), DELTA, "Wrong green of ray " + i + "," + j);
+                assertEquals(expected.getBlue(), color.getBlue(), DELTA, "Wrong blue of ray " + i + "," + j);
+            }
+    }
+
+    /**
+     * Test method for {@link IterativeRayTracer#traceRay(Ray, int)}
+     */
+    @Test
+    void testTraceRay() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: glass spheres on mirrors, with soft shadows
+        Scene scene = new Scene("Test").setBackground(new Color(10, 20, 30))
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.geometries.add(
+                new Sphere(400d, new Point(-950, -900, -1000)).setEmission(new Color(0, 50, 100))
+                        .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20).setKt(new Double3(0.5, 0, 0))),
+                new Sphere(200d, new Point(-950, -900, -1000)).setEmission(new Color(100, 50, 20))
+                        .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500), new Point(670, 670, 3000))
+                        .setEmission(new Color(20, 20, 20)).setMaterial(new Material().setKr(1)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500), new Point(-1500, -1500, -2000))
+                        .setEmission(new Color(20, 20, 20)).setMaterial(new Material().setKr(new Double3(0.5, 0, 0.4))));
+        scene.lights.add(new SpotLight(new Color(1020, 400, 400), new Point(-750, -750, -150), new Vector(-1, -1, -4))
+                .setKl(0.00001).setKq(0.000005));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(500, 500, 500)).setRadius(100));
+        assertSameColors(scene, new Point(0, 0, 10000), 4, 0);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: two parallel mirrors, where every ray is reflected up to the last level
+        scene = new Scene("Test").setBackground(new Color(10, 20, 30));
+        scene.geometries.add(
+                new Plane(new Point(0, 0, -2000), new Vector(0, 0, 1)).setEmission(new Color(20, 0, 0))
+                        .setMaterial(new Material().setKd(0.2).setKr(0.9).setKt(0.5)),
+                new Plane(new Point(0, 0, 2000), new Vector(0, 0, -1)).setEmission(new Color(0, 20, 0))
+                        .setMaterial(new Material().setKd(0.2).setKr(0.9)));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(0, 0, 0)));
+        assertSameColors(scene, new Point(0, 0, 1000), 1, 0);
+        // TC12: a ray that hits nothing
+        assertSame(scene.background, new IterativeRayTracer(new Scene("Empty").setBackground(scene.background))
+                .traceRay(new Ray(Point.ZERO, Vector.Z), 1), "Wrong color of the background");
+    }
+
+    /**
+     * Test method for {@link IterativeRayTracer#traceRay(Ray, int)} with russian roulette
+     */
+    @Test
+    void testTraceRayRussianRoulette() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: glass and mirrors, where rays of both the reflected and the refracted branches are terminated
+        // randomly - the random numbers must be drawn in the same order by both tracers
+        Scene scene = new Scene("Test").setBackground(new Color(10, 20, 30));
+        scene.geometries.add(
+                new Plane(new Point(0, 0, -2000), new Vector(0, 0, 1)).setEmission(new Color(20, 0, 0))
+                        .setMaterial(new Material().setKd(0.2).setKr(0.6).setKt(0.5)),
+                new Plane(new Point(0, 0, 2000), new Vector(0, 0, -1)).setEmission(new Color(0, 20, 0))
+                        .setMaterial(new Material().setKd(0.2).setKr(0.7).setKt(0.3)),
+                new Sphere(300d, new Point(0, 0, -1000)).setEmission(new Color(0, 0, 50))
+                        .setMaterial(new Material().setKd(0.2).setKs(0.2).setShininess(20).setKr(0.4).setKt(0.5)));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(0, 0, 0)).setRadius(50));
+        assertSameColors(scene, new Point(0, 0, 1000), 4, 0.3);
+    }
+}
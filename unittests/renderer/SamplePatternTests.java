@@ -0,0 +1,163 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link SamplePattern}
+ *
+ * @author Elad and Amitay
+ */
+class SamplePatternTests {
+    /**
+     * Delta value for accuracy when comparing the numbers of type 'double' in
+     * assertEquals
+     */
+    private final double DELTA = 0.000001;
+
+    /**
+     * Test method for {@link SamplePattern#grid(int)}
+     */
+    @Test
+    void testGrid() {
+        SamplePattern grid = SamplePattern.grid(4);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the centers of the cells, row by row from the top left cell
+        assertEquals(16, grid.size(), "Wrong amount of samples");
+        assertEquals(-0.375, grid.getX(0), DELTA, "Wrong horizontal offset of the first cell");
+        assertEquals(0.375, grid.getY(0), DELTA, "Wrong vertical offset of the first cell");
+        assertEquals(-0.125, grid.getX(5), DELTA, "Wrong horizontal offset of a cell");
+        assertEquals(0.125, grid.getY(5), DELTA, "Wrong vertical offset of a cell");
+        // =============== Boundary Values Tests ==================
+        // TC11: a single sample is the center
+        assertEquals(0, SamplePattern.grid(1).getX(0), DELTA, "Single sample is not the center");
+        // TC12: no samples
+        assertThrows(IllegalArgumentException.class, () -> SamplePattern.grid(0), "Pattern without samples");
+    }
+
+    /**
+     * Test method for {@link SamplePattern#square(int, int)}
+     */
+    @Test
+    void testSquare() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every sample is inside the square and every cell of the grid has one sample
+        for (int rotation = 0; rotation < SamplePattern.ROTATIONS; rotation++) {
+            SamplePattern square = SamplePattern.square(5, rotation);
+            assertEquals(25, square.size(), "Wrong amount of samples");
+            boolean[] cells = new boolean[25];
+            for (int i = 0; i < square.size(); i++) {
+                assertTrue(Math.abs(square.getX(i)) <= 0.5 && Math.abs(square.getY(i)) <= 0.5, "Sample is outside the square");
+                //the copies are shifted, so the cells of a copy are shifted as well
+                cells[(int) ((square.getX(i) + 0.5) * 5) % 5 + 5 * ((int) ((square.getY(i) + 0.5) * 5) % 5)] = true;
+            }
+            if (rotation == 0)
+                for (boolean cell : cells)
+                    assertTrue(cell, "Cell without a sample");
+        }
+        // TC02: the pattern is generated once and the rotated copies differ
+        assertSame(SamplePattern.square(5, 3), SamplePattern.square(5, 3), "Pattern was generated again");
+        assertNotEquals(SamplePattern.square(5, 0).getX(0), SamplePattern.square(5, 1).getX(0), "Rotated copies are the same");
+        // =============== Boundary Values Tests ==================
+        // TC11: the index of the copy is taken modulo the amount of copies
+        assertSame(SamplePattern.square(5, 2), SamplePattern.square(5, 2 + SamplePattern.ROTATIONS), "Wrong copy");
+        assertSame(SamplePattern.square(5, SamplePattern.ROTATIONS - 1), SamplePattern.square(5, -1), "Wrong copy of a negative index");
+    }
+
+    /**
+     * Test method for {@link SamplePattern#disk(int, int)}
+     */
+    @Test
+    void testDisk() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: no sample is discarded and every sample is inside the disk
+        SamplePattern disk = SamplePattern.disk(6, 0);
+        assertEquals(36, disk.size(), "Wrong amount of samples");
+        double sumX = 0, sumY = 0;
+        for (int i = 0; i < disk.size(); i++) {
+            assertTrue(disk.getX(i) * disk.getX(i) + disk.getY(i) * disk.getY(i) <= 0.25 + DELTA, "Sample is outside the disk");
+            sumX += disk.getX(i);
+            sumY += disk.getY(i);
+        }
+        // TC02: the samples are spread around the center
+        assertEquals(0, sumX / disk.size(), 0.05, "Samples are not centered");
+        assertEquals(0, sumY / disk.size(), 0.05, "Samples are not centered");
+        // TC03: a rotated copy keeps the distances from the center
+        SamplePattern rotated = SamplePattern.disk(6, 5);
+        assertEquals(Math.hypot(disk.getX(7), disk.getY(7)), Math.hypot(rotated.getX(7), rotated.getY(7)), DELTA,
+                "Rotation changed the distance from the center");
+    }
+
+    /**
+     * Test method for {@link SamplePattern#square(SamplePattern.Sampling, int, int)}
+     */
+    @Test
+    void testSampling() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every sampling has all of its samples inside the square, and Sobol has one in every thin row and column
+        for (SamplePattern.Sampling sampling : SamplePattern.Sampling.values()) {
+            SamplePattern square = SamplePattern.square(sampling, 4, 0);
+            assertEquals(16, square.size(), "Wrong amount of samples");
+            for (int i = 0; i < square.size(); i++)
+                assertTrue(Math.abs(square.getX(i)) <= 0.5 && Math.abs(square.getY(i)) <= 0.5, "Sample is outside the square");
+            if (sampling != SamplePattern.Sampling.SOBOL)
+                continue;
+            boolean[] columns = new boolean[16], rows = new boolean[16];
+            for (int i = 0; i < square.size(); i++) {
+                columns[(int) ((square.getX(i) + 0.5) * 16)] = true;
+                rows[(int) ((square.getY(i) + 0.5) * 16)] = true;
+            }
+            for (int i = 0; i < 16; i++)
+                assertTrue(columns[i] && rows[i], "Sobol sampling left an empty row or column");
+        }
+        // TC02: the Halton sequence in bases 2 and 3
+        SamplePattern halton = SamplePattern.square(SamplePattern.Sampling.HALTON, 2, 0);
+        assertEquals(0, halton.getX(0), DELTA, "Wrong Halton sample");
+        assertEquals(1d / 3 - 0.5, halton.getY(0), DELTA, "Wrong Halton sample");
+        assertEquals(-0.25, halton.getX(1), DELTA, "Wrong Halton sample");
+        // TC03: the scrambled copies of a Sobol pattern differ
+        assertNotEquals(SamplePattern.square(SamplePattern.Sampling.SOBOL, 4, 0).getX(0),
+                SamplePattern.square(SamplePattern.Sampling.SOBOL, 4, 1).getX(0), "Scrambled copies are the same");
+        // TC04: the samples of blue noise keep away from each other
+        SamplePattern blueNoise = SamplePattern.square(SamplePattern.Sampling.BLUE_NOISE, 4, 0);
+        for (int i = 0; i < blueNoise.size(); i++)
+            for (int j = 0; j < i; j++)
+                assertTrue(Math.hypot(blueNoise.getX(i) - blueNoise.getX(j), blueNoise.getY(i) - blueNoise.getY(j)) > 0.05,
+                        "Blue noise samples are too close");
+        // =============== Boundary Values Tests ==================
+        // TC11: every sampling has its own pattern
+        assertNotSame(SamplePattern.square(SamplePattern.Sampling.HALTON, 4, 0),
+                SamplePattern.square(SamplePattern.Sampling.SOBOL, 4, 0), "Samplings share a pattern");
+    }
+
+    /**
+     * Test method for {@link SamplePattern#getProbe(int)}
+     */
+    @Test
+    void testProbes() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the probes of a grid are its corners, the middles of its edges and its center
+        SamplePattern grid = SamplePattern.grid(5);
+        assertEquals(9, grid.probeCount(), "Wrong amount of probes");
+        int[] expected = {0, 2, 4, 10, 12, 14, 20, 22, 24};
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(expected[i], grid.getProbe(i), "Wrong probe");
+        // TC02: the probes of every sampling are different samples spread over the rim and the center of the disk
+        for (SamplePattern.Sampling sampling : SamplePattern.Sampling.values()) {
+            SamplePattern disk = SamplePattern.disk(sampling, 6, 0);
+            int rim = 0;
+            for (int i = 0; i < disk.probeCount(); i++) {
+                if (i > 0)
+                    assertTrue(disk.getProbe(i) > disk.getProbe(i - 1), sampling + " probes are not in ascending order");
+                if (Math.hypot(disk.getX(disk.getProbe(i)), disk.getY(disk.getProbe(i))) > 0.3)
+                    rim++;
+            }
+            assertEquals(8, rim, sampling + " probes are not on the rim");
+        }
+        // =============== Boundary Values Tests ==================
+        // TC11: small patterns have no probes
+        assertEquals(0, SamplePattern.disk(3, 0).probeCount(), "Small pattern has probes");
+        assertEquals(9, SamplePattern.disk(4, 0).probeCount(), "Wrong amount of probes");
+    }
+}
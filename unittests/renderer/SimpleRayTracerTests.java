@@ -0,0 +1,236 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.LinkedList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link SimpleRayTracer}
+ *
+ * @author Elad and Amitay
+ */
+class SimpleRayTracerTests {
+
+    /**
+     * a sphere between two parallel planes that reflect and refract, so every ray spawns a tree of rays
+     */
+    private final Scene scene = new Scene("Test").setBackground(new Color(10, 20, 30));
+
+    {
+        scene.geometries.add(
+                new Plane(new Point(0, 0, -2000), new Vector(0, 0, 1)).setEmission(new Color(20, 0, 0))
+                        .setMaterial(new Material().setKd(0.2).setKr(0.6).setKt(0.4)),
+                new Plane(new Point(0, 0, 2000), new Vector(0, 0, -1)).setEmission(new Color(0, 20, 0))
+                        .setMaterial(new Material().setKd(0.2).setKr(0.7).setKt(0.3)),
+                new Sphere(300d, new Point(0, 0, -1000)).setEmission(new Color(0, 0, 60))
+                        .setMaterial(new Material().setKd(0.3).setKs(0.3).setShininess(30).setKr(0.5).setKt(0.5)));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(0, 500, 0)));
+    }
+
+    /**
+     * traces a ray many times with russian roulette and compares the average color with the color without it
+     *
+     * @param rayTracer the ray tracer
+     */
+    private void assertRussianRoulette(RayTracerBase rayTracer) {
+        Ray ray = new Ray(new Point(0, 0, 1000), new Vector(0.1, 0.05, -1));
+        rayTracer.resetTracedRays();
+        Color expected = rayTracer.traceRay(ray, 1);
+        long rays = rayTracer.getTracedRays();
+
+        final int TRACES = 4000;
+        rayTracer.setRussianRoulette(0.3).resetTracedRays();
+        double red = 0, green = 0, blue = 0;
+        for (int i = 0; i < TRACES; i++) {
+            FastRandom.current().setSeed(FastRandom.mix(i));
+            Color color = rayTracer.traceRay(ray, 1);
+            red += color.getRed();
+            green += color.getGreen();
+            blue += color.getBlue();
+        }
+        // the expected color stays the same
+        assertEquals(expected.getRed(), red / TRACES, expected.getRed() * 0.02, "Russian roulette changed the red");
+        assertEquals(expected.getGreen(), green / TRACES, expected.getGreen() * 0.02, "Russian roulette changed the green");
+        assertEquals(expected.getBlue(), blue / TRACES, expected.getBlue() * 0.02, "Russian roulette changed the blue");
+        // with much fewer rays
+        assertTrue(rayTracer.getTracedRays() < rays * TRACES / 4, "Russian roulette did not terminate rays");
+    }
+
+    /**
+     * Test method for {@link RayTracerBase#setRussianRoulette(double)}
+     */
+    @Test
+    void testRussianRoulette() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the recursive tracer
+        assertRussianRoulette(new SimpleRayTracer(scene));
+        // TC02: the iterative tracer
+        assertRussianRoulette(new IterativeRayTracer(scene));
+        // =============== Boundary Values Tests ==================
+        // TC11: threshold out of range
+        assertThrows(IllegalArgumentException.class, () -> new SimpleRayTracer(scene).setRussianRoulette(-0.1),
+                "Negative threshold");
+        assertThrows(IllegalArgumentException.class, () -> new SimpleRayTracer(scene).setRussianRoulette(1.1),
+                "Threshold above 1");
+    }
+
+    /**
+     * Test method for {@link RayTracerBase#getTracedRays()} and {@link Camera#getRaysPerPixel()}
+     */
+    @Test
+    void testTracedRays() {
+        RayTracerBase rayTracer = new SimpleRayTracer(scene);
+        Camera.Builder builder = Camera.getBuilder()
+                .setDirection(Point.ZERO, new Vector(0, 1, 0))
+                .setLocation(new Point(0, 0, 1000)).setVpDistance(500)
+                .setVpSize(200, 200).setPrintInterval(0)
+                .setImageWriter(new ImageWriter("Test", 10, 10));
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the reflected and refracted rays are counted with the primary rays
+        Camera camera = builder.setRayTracer(rayTracer).build().renderImage();
+        assertEquals(rayTracer.getTracedRays() / 100d, camera.getRaysPerPixel(), 0.000001, "Wrong amount of rays per pixel");
+        assertTrue(camera.getRaysPerPixel() > 1, "Reflected and refracted rays are not counted");
+        // TC02: russian roulette spawns fewer rays
+        double rays = camera.getRaysPerPixel();
+        rayTracer.setRussianRoulette(0.3);
+        assertTrue(camera.renderImage().getRaysPerPixel() < rays / 2, "Russian roulette did not terminate rays");
+        // =============== Boundary Values Tests ==================
+        // TC11: a single ray for every pixel of a scene without reflection and refraction
+        Scene plain = new Scene("Plain");
+        plain.geometries.add(new Sphere(100d, new Point(0, 0, -100)).setEmission(new Color(50, 0, 0)));
+        assertEquals(1, builder.setRayTracer(new SimpleRayTracer(plain)).build().renderImage().getRaysPerPixel(),
+                0.000001, "Wrong amount of rays per pixel");
+    }
+
+    /**
+     * Test method for {@link RayTracerBase#setLightCulling(double)}
+     */
+    @Test
+    void testLightCulling() {
+        Scene lit = new Scene("Lights");
+        lit.geometries.add(new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setEmission(new Color(10, 10, 10))
+                .setMaterial(new Material().setKd(0.6).setKs(0.2).setShininess(20)));
+        for (int i = 0; i < 50; i++)
+            lit.lights.add(new PointLight(new Color(200, 100 + i, 300 - i), new Point(i % 10 * 200 - 1000, i / 10 * 200 - 500, 0))
+                    .setKl(0.001).setKq(0.0005));
+        RayTracerBase all = new SimpleRayTracer(lit), culled = new SimpleRayTracer(lit).setLightCulling(0.5);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every culled light adds less than the threshold times the reflection factors
+        for (int x = -1200; x <= 1200; x += 100)
+            for (int y = -700; y <= 700; y += 100) {
+                Ray ray = new Ray(new Point(x, y, 1000), new Vector(0, 0, -1));
+                Color expected = all.traceRay(ray, 1), color = culled.traceRay(ray, 1);
+                double bound = 50 * 0.5 * (0.6 + 0.2);
+                assertTrue(color.getRed() <= expected.getRed() && color.getRed() >= expected.getRed() - bound,
+                        "Wrong color of culled lights");
+                assertTrue(color.getBlue() <= expected.getBlue() && color.getBlue() >= expected.getBlue() - bound,
+                        "Wrong color of culled lights");
+            }
+        // TC02: lights added after the first ray are found
+        lit.lights.add(new PointLight(new Color(1000, 1000, 1000), new Point(0, 0, -50)).setKq(0.001));
+        Ray ray = new Ray(new Point(0, 0, 1000), new Vector(0, 0, -1));
+        assertEquals(all.traceRay(ray, 1).getRed(), culled.traceRay(ray, 1).getRed(), 50 * 0.5 * (0.6 + 0.2),
+                "Light added later was not found");
+        // TC03: a light replaced after rebuilding the index is found
+        lit.lights.set(lit.lights.size() - 1, new PointLight(new Color(1000, 1000, 1000), new Point(500, 0, -50)).setKq(0.001));
+        culled.rebuildLightIndex();
+        Ray moved = new Ray(new Point(500, 0, 1000), new Vector(0, 0, -1));
+        assertEquals(all.traceRay(moved, 1).getRed(), culled.traceRay(moved, 1).getRed(), 50 * 0.5 * (0.6 + 0.2),
+                "Replaced light was not found");
+        // TC04: the lights of a replaced list are found
+        lit.setLights(new LinkedList<>(lit.lights.subList(0, lit.lights.size() - 1)));
+        assertEquals(all.traceRay(moved, 1).getRed(), culled.traceRay(moved, 1).getRed(), 50 * 0.5 * (0.6 + 0.2),
+                "Lights of a replaced list were not found");
+        // =============== Boundary Values Tests ==================
+        // TC11: negative threshold
+        assertThrows(IllegalArgumentException.class, () -> new SimpleRayTracer(lit).setLightCulling(-1),
+                "Negative threshold");
+    }
+
+    /**
+     * Test method for {@link RayTracerBase#setLightSamples(int)}
+     */
+    @Test
+    void testLightSamples() {
+        Scene lit = new Scene("Lights");
+        lit.geometries.add(new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setEmission(new Color(10, 10, 10))
+                        .setMaterial(new Material().setKd(0.6).setKs(0.2).setShininess(20)),
+                new Sphere(50d, new Point(100, 0, -50)).setMaterial(new Material().setKd(0.5)));
+        for (int i = 0; i < 100; i++)
+            lit.lights.add(new PointLight(new Color(20 + i, 100, 200 - i), new Point(i % 10 * 100 - 500, i / 10 * 100 - 500, 100))
+                    .setKq(0.0001));
+        RayTracerBase all = new SimpleRayTracer(lit), sampled = new SimpleRayTracer(lit).setLightSamples(4);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the average color of a few lights for every point is the color of all the lights, also in the shadow
+        final int TRACES = 4000;
+        for (Point target : new Point[]{new Point(-200, 100, -100), new Point(200, 0, -100)}) {
+            Ray ray = new Ray(new Point(0, 0, 1000), target.subtract(new Point(0, 0, 1000)));
+            Color expected = all.traceRay(ray, 1);
+            double red = 0, blue = 0;
+            for (int i = 0; i < TRACES; i++) {
+                FastRandom.current().setSeed(FastRandom.mix(i));
+                Color color = sampled.traceRay(ray, 1);
+                red += color.getRed();
+                blue += color.getBlue();
+            }
+            assertEquals(expected.getRed(), red / TRACES, expected.getRed() * 0.02, "Wrong average of chosen lights");
+            assertEquals(expected.getBlue(), blue / TRACES, expected.getBlue() * 0.02, "Wrong average of chosen lights");
+        }
+        // =============== Boundary Values Tests ==================
+        // TC11: no more lights than the amount of samples gives the color of all the lights
+        Ray ray = new Ray(new Point(0, 0, 1000), new Vector(0, 0, -1));
+        assertEquals(all.traceRay(ray, 1), sampled.setLightSamples(100).traceRay(ray, 1), "Wrong color of all the lights");
+        // TC12: negative amount
+        assertThrows(IllegalArgumentException.class, () -> sampled.setLightSamples(-1), "Negative amount of lights");
+    }
+
+    /**
+     * Test method for {@link RayTracerBase#setShadowCache(boolean)}
+     */
+    @Test
+    void testShadowCache() {
+        //a floor under a grid of opaque spheres and a transparent one, lit by a point light and a soft light
+        Scene shadowed = new Scene("Shadows");
+        shadowed.geometries.add(new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setEmission(new Color(10, 10, 10))
+                        .setMaterial(new Material().setKd(0.6).setKs(0.2).setShininess(20)),
+                new Sphere(40d, new Point(0, 150, 0)).setMaterial(new Material().setKd(0.5).setKt(0.5)));
+        for (int i = 0; i < 9; i++)
+            shadowed.geometries.add(new Sphere(40d, new Point(i % 3 * 100 - 100, i / 3 * 100 - 100, 0))
+                    .setMaterial(new Material().setKd(0.5)));
+        shadowed.lights.add(new PointLight(new Color(300, 300, 300), new Point(0, 0, 400)));
+        shadowed.lights.add(new PointLight(new Color(200, 100, 100), new Point(200, 200, 300)).setRadius(30));
+        Camera.Builder builder = Camera.getBuilder()
+                .setDirection(Point.ZERO, new Vector(0, 1, 0))
+                .setLocation(new Point(0, 0, 1000)).setVpDistance(500)
+                .setVpSize(200, 200).setPrintInterval(0).setSeed(1).setAmountOfSamples(16)
+                .setImageWriter(new ImageWriter("Test", 40, 40));
+        RayTracerBase plain = new SimpleRayTracer(shadowed), cached = new SimpleRayTracer(shadowed).setShadowCache(true);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the cache gives the same colors
+        for (int x = -300; x <= 300; x += 20)
+            for (int y = -300; y <= 300; y += 20) {
+                Ray ray = new Ray(new Point(0, 0, 1000), new Vector(x, y, -1100));
+                FastRandom.current().setSeed(FastRandom.mix(x * 1000L + y));
+                Color expected = plain.traceRay(ray, 16);
+                FastRandom.current().setSeed(FastRandom.mix(x * 1000L + y));
+                assertEquals(expected, cached.traceRay(ray, 16), "Wrong color with the shadow cache");
+            }
+        // TC02: the shadow rays of neighbouring pixels are blocked by the cached occluder
+        builder.setRayTracer(cached).build().renderImage();
+        long hits = cached.getShadowCacheHits(), misses = cached.getShadowCacheMisses();
+        assertTrue(hits > (hits + misses) / 4, "Shadow cache is not hit");
+        // =============== Boundary Values Tests ==================
+        // TC11: the counters are reset when the cache is cleared, and not counted without the cache
+        cached.clearShadowCache();
+        assertEquals(0, cached.getShadowCacheHits() + cached.getShadowCacheMisses(), "Counters are not reset");
+        builder.setRayTracer(plain).build().renderImage();
+        assertEquals(0, plain.getShadowCacheHits() + plain.getShadowCacheMisses(), "Counted without the cache");
+    }
+}
@@ -1,6 +1,7 @@
 package renderer;
 
 import geometries.Geometry;
+import geometries.Plane;
 import geometries.Sphere;
 import geometries.Triangle;
 import lighting.PointLight;
@@ -11,6 +12,9 @@ import primitives.Point;
 import primitives.Vector;
 import scene.Scene;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class SoftShadowsTest {
     private final Scene scene = new Scene("Soft Shadows Test");
     private final Camera.Builder camera = Camera.getBuilder()
@@ -56,4 +60,103 @@ public class SoftShadowsTest {
                 .renderImage()
                 .writeToImage();
     }
-}
\ No newline at end of file
+
+    /**
+     * image writer that keeps the rendered colors instead of writing them to a file
+     */
+    private static class RecordingImageWriter extends ImageWriter {
+        /**
+         * the written colors, by pixel
+         */
+        final Color[] pixels;
+
+        RecordingImageWriter(int nX, int nY) {
+            super("Test", nX, nY);
+            pixels = new Color[nX * nY];
+        }
+
+        @Override
+        public void writePixel(int xIndex, int yIndex, Color color) {
+            pixels[yIndex * getNx() + xIndex] = color;
+        }
+    }
+
+    /**
+     * renders the soft shadow of a sphere on a plane, with a single ray through every pixel
+     *
+     * @param sampling        the way the samples are spread on the light
+     * @param amountOfSamples square root of the amount of shadow rays for every pixel
+     * @param adaptive        true for adaptive soft shadows
+     * @return the colors of the pixels
+     */
+    private static Color[] renderShadow(SamplePattern.Sampling sampling, int amountOfSamples, boolean adaptive) {
+        Scene scene = new Scene("Sampling Test");
+        scene.geometries.add(new Sphere(30d, new Point(0, 0, -100)).setEmission(new Color(40, 0, 0))
+                        .setMaterial(new Material().setKd(0.5)),
+                new Plane(new Point(0, 0, -150), new Vector(0, 0, 1)).setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKd(0.8)));
+        scene.lights.add(new PointLight(new Color(400, 400, 400), new Point(100, 100, 100)).setRadius(40));
+        RecordingImageWriter imageWriter = new RecordingImageWriter(50, 50);
+        Camera.getBuilder()
+                .setDirection(Point.ZERO, new Vector(0, 1, 0))
+                .setLocation(new Point(0, 0, 500)).setVpDistance(500)
+                .setVpSize(200, 200)
+                .setRayTracer(new SimpleRayTracer(scene).setSampling(sampling).setAdaptiveSoftShadows(adaptive))
+                .setAmountOfSamples(amountOfSamples)
+                .setPrintInterval(0)
+                .setImageWriter(imageWriter)
+                .build()
+                .renderImage();
+        return imageWriter.pixels;
+    }
+
+    /**
+     * returns the root mean square error of an image
+     *
+     * @param image     the colors of the image
+     * @param reference the colors of the reference image
+     * @return the error
+     */
+    private static double rmse(Color[] image, Color[] reference) {
+        double sum = 0;
+        for (int i = 0; i < image.length; i++) {
+            java.awt.Color color = image[i].getColor(), expected = reference[i].getColor();
+            double red = color.getRed() - expected.getRed(), green = color.getGreen() - expected.getGreen();
+            double blue = color.getBlue() - expected.getBlue();
+            sum += (red * red + green * green + blue * blue) / 3;
+        }
+        return Math.sqrt(sum / image.length);
+    }
+
+    /**
+     * compares the noise of the soft shadows of every sampling with a reference image of many samples
+     */
+    @Test
+    public void testSampling() {
+        Color[] reference = renderShadow(SamplePattern.Sampling.JITTERED, 24, false);
+        double jittered = rmse(renderShadow(SamplePattern.Sampling.JITTERED, 8, false), reference);
+        for (SamplePattern.Sampling sampling : SamplePattern.Sampling.values()) {
+            double few = rmse(renderShadow(sampling, 4, false), reference);
+            double many = rmse(renderShadow(sampling, 8, false), reference);
+            //4 times the samples halve the noise, and every sampling is as good as the jittered one
+            assertTrue(many < few * 0.6, sampling + " sampling does not converge");
+            assertTrue(many < jittered * 1.3, sampling + " sampling is noisier than jittered sampling");
+        }
+    }
+
+    /**
+     * compares adaptive soft shadows with casting all the shadow rays
+     */
+    @Test
+    public void testAdaptiveSoftShadows() {
+        Color[] reference = renderShadow(SamplePattern.Sampling.JITTERED, 24, false);
+        for (SamplePattern.Sampling sampling : SamplePattern.Sampling.values()) {
+            Color[] full = renderShadow(sampling, 8, false), adaptive = renderShadow(sampling, 8, true);
+            //the probes skip the lit and the shadowed areas only, so the noise stays the same
+            assertTrue(rmse(adaptive, reference) < rmse(full, reference) * 1.2 + 0.2,
+                    sampling + " adaptive soft shadows are noisier than full sampling");
+            //the corner of the image is far from the shadow
+            assertEquals(full[0], adaptive[0], sampling + " adaptive soft shadows changed a lit pixel");
+        }
+    }
+}
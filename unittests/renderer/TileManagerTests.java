@@ -0,0 +1,78 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for {@link TileManager}
+ *
+ * @author Elad and Amitay
+ */
+class TileManagerTests {
+
+    /**
+     * renders all the tiles of an image with a few threads and counts how many times every pixel was rendered
+     *
+     * @param nX,nY    the resolution
+     * @param tileSize the length of the edge of a tile
+     * @param hilbert  true for Hilbert curve order inside the tiles
+     * @param threads  amount of threads
+     * @return the amount of times every pixel was rendered
+     */
+    private static AtomicIntegerArray render(int nX, int nY, int tileSize, boolean hilbert, int threads) throws InterruptedException {
+        TileManager tileManager = new TileManager(nY, nX, tileSize, hilbert, 0);
+        AtomicIntegerArray counts = new AtomicIntegerArray(nX * nY);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++)
+            workers.add(new Thread(() -> {
+                while (tileManager.renderNextTile((column, row) -> counts.incrementAndGet(row * nX + column))) ;
+            }));
+        for (Thread worker : workers) worker.start();
+        for (Thread worker : workers) worker.join();
+        assertEquals((long) nX * nY, tileManager.getPixels(), "Wrong progress");
+        return counts;
+    }
+
+    /**
+     * Test method for {@link TileManager#renderNextTile(TileManager.PixelTask)}
+     */
+    @Test
+    void testRenderNextTile() throws InterruptedException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every pixel is rendered once, in scanline and Hilbert order, with partial tiles on the edges
+        for (boolean hilbert : new boolean[]{false, true}) {
+            AtomicIntegerArray counts = render(37, 21, 8, hilbert, 3);
+            for (int i = 0; i < counts.length(); i++)
+                assertEquals(1, counts.get(i), "Pixel " + i + " was not rendered once");
+        }
+        // TC02: the pixels of a tile in Hilbert order are neighbours of each other
+        List<int[]> pixels = new ArrayList<>();
+        new TileManager(8, 8, 8, true, 0).renderNextTile((column, row) -> pixels.add(new int[]{column, row}));
+        assertEquals(64, pixels.size(), "Wrong amount of pixels in the tile");
+        for (int i = 1; i < pixels.size(); i++)
+            assertEquals(1, Math.abs(pixels.get(i)[0] - pixels.get(i - 1)[0]) + Math.abs(pixels.get(i)[1] - pixels.get(i - 1)[1]),
+                    "Consecutive pixels in Hilbert order are not neighbours");
+        // =============== Boundary Values Tests ==================
+        // TC11: tile larger than the image
+        AtomicIntegerArray counts = render(5, 3, 16, false, 2);
+        for (int i = 0; i < counts.length(); i++)
+            assertEquals(1, counts.get(i), "Pixel " + i + " was not rendered once");
+        // TC12: tile of a single pixel, and Hilbert order with a tile size that is not a power of 2
+        for (int tileSize : new int[]{1, 6}) {
+            counts = render(13, 7, tileSize, true, 2);
+            for (int i = 0; i < counts.length(); i++)
+                assertEquals(1, counts.get(i), "Pixel " + i + " was not rendered once");
+        }
+        // TC13: no more tiles
+        TileManager tileManager = new TileManager(2, 2, 2, false, 0);
+        assertTrue(tileManager.renderNextTile((column, row) -> {
+        }), "The only tile was not handed out");
+        assertFalse(tileManager.renderNextTile((column, row) -> {
+        }), "Tile handed out after the last one");
+    }
+}
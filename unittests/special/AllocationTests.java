@@ -0,0 +1,73 @@
+package special;
+
+import geometries.Geometries;
+import geometries.Intersectable.Hit;
+import geometries.Sphere;
+import geometries.Triangle;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * tests of the allocations of the vector math in the inner loops of the renderer
+ *
+ * @author Elad and Amitay
+ */
+public class AllocationTests {
+    /**
+     * amount of repetitions of every measured loop
+     */
+    private static final int REPETITIONS = 200_000;
+    /**
+     * measures the bytes allocated by a loop per repetition, after warming it up.
+     * the test is skipped without the allocation counter of hotspot, or without a JIT compiler
+     * (like under -Xint), which leaves the short-lived objects of the libraries on the heap
+     *
+     * @param loop the loop
+     * @return the bytes per repetition
+     */
+    private double allocatedBytes(Runnable loop) {
+        assumeTrue(ManagementFactory.getCompilationMXBean() != null, "No JIT compiler");
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "No allocation counter of the threads");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(),
+                "No allocation counter of the threads");
+        for (int i = 0; i < 5; i++)
+            loop.run();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        loop.run();
+        return (double) (threads.getCurrentThreadAllocatedBytes() - before) / REPETITIONS;
+    }
+
+    /**
+     * Test method for the allocations of {@link geometries.Intersectable#intersect(Ray, Hit)} -
+     * the vector math of the spheres, planes and triangles is done in raw coordinates, so tracing a ray
+     * allocates nothing
+     */
+    @Test
+    void testIntersect() {
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 20; i++)
+            geometries.add(new Sphere(2d, new Point(i * 5 - 50, 0, 0)),
+                    new Triangle(new Point(i * 5 - 50, -5, -10), new Point(i * 5 - 45, -5, -10), new Point(i * 5 - 50, 5, -10)));
+        geometries.buildFlatBVH();
+        Ray[] rays = new Ray[100];
+        for (int i = 0; i < rays.length; i++)
+            rays[i] = new Ray(new Point(i % 100 - 50, 0, -100), new Vector(0, 0, 1));
+        int[] hits = new int[1];
+        double bytes = allocatedBytes(() -> {
+            for (int i = 0; i < REPETITIONS; i++)
+                if (geometries.intersect(rays[i % rays.length], Hit.get(Double.POSITIVE_INFINITY)))
+                    hits[0]++;
+        });
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: rays through spheres and triangles (a single vector is 40 bytes)
+        assertTrue(hits[0] > 0, "Rays miss the scene");
+        assertTrue(bytes < 8, "Tracing a ray allocates " + bytes + " bytes");
+    }
+}
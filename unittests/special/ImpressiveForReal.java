@@ -76,6 +76,7 @@ public class ImpressiveForReal {
                 .setEmission(new Color(50, 50, 70))
                 .setMaterial(new Material().setKd(0.2).setKs(0.2).setShininess(30));
         scene.geometries.add(shadowTriangle);
+        scene.geometries.buildFlatBVH();
 
         // Add 10 point lights
         for (int i = 0; i < 10; i++) {
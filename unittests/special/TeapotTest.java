@@ -1575,6 +1575,7 @@ public class TeapotTest {
         );
         scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(100, 0, -100)).setKq(0.000001));
 
+        scene.geometries.buildFlatBVH();
         cameraBuilder.setRayTracer(new SimpleRayTracer(scene)).build().renderImage().printGrid(50, new Color(YELLOW)).writeToImage();
 
     }